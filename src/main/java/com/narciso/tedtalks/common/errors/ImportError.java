@@ -1,15 +1,40 @@
 package com.narciso.tedtalks.common.errors;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
-@AllArgsConstructor
 public class ImportError {
     private int line;
     private ErrorType type;
     private String field;
     private String value;
     private String message;
-}
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ImportErrorMessage template;
+
+    public ImportError(int line, ErrorType type, String field, String value, String message) {
+        this.line = line;
+        this.type = type;
+        this.field = field;
+        this.value = value;
+        this.message = message;
+    }
 
+    // rendered on first read, so errors that are only counted never pay for building the text
+    public ImportError(int line, ErrorType type, String field, String value, ImportErrorMessage template) {
+        this(line, type, field, value, (String) null);
+        this.template = template;
+    }
+
+    public String getMessage() {
+        if (message == null && template != null) {
+            message = template.render(field, value);
+        }
+        return message;
+    }
+}
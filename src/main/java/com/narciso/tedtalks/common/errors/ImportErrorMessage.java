@@ -0,0 +1,30 @@
+package com.narciso.tedtalks.common.errors;
+
+public enum ImportErrorMessage {
+    EMPTY_FIELD {
+        @Override
+        public String render(String field, String value) {
+            return "Field '" + field + "' cannot be empty.";
+        }
+    },
+    NOT_DIGITS {
+        @Override
+        public String render(String field, String value) {
+            return "Invalid format for '" + field + "': '" + value + "'. Only digits are allowed.";
+        }
+    },
+    NUMBER_TOO_LARGE {
+        @Override
+        public String render(String field, String value) {
+            return "Value '" + value + "' for '" + field + "' is too large for an integer or cannot be parsed.";
+        }
+    },
+    DATE_FORMAT {
+        @Override
+        public String render(String field, String value) {
+            return "Cannot parse '" + value + "' as 'MMMM yyyy'.";
+        }
+    };
+
+    public abstract String render(String field, String value);
+}
@@ -0,0 +1,11 @@
+package com.narciso.tedtalks.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateTalkException extends RuntimeException {
+    public DuplicateTalkException(String message) {
+        super(message);
+    }
+}
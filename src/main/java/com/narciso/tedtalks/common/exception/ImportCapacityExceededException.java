@@ -0,0 +1,11 @@
+package com.narciso.tedtalks.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ImportCapacityExceededException extends RuntimeException {
+    public ImportCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.narciso.tedtalks.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ImportJobStateException extends RuntimeException {
+    public ImportJobStateException(String message) {
+        super(message);
+    }
+}
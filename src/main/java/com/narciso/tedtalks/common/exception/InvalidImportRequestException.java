@@ -0,0 +1,11 @@
+package com.narciso.tedtalks.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportRequestException extends RuntimeException {
+    public InvalidImportRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.narciso.tedtalks.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidInfluenceStrategyException extends RuntimeException {
+    public InvalidInfluenceStrategyException(String message) {
+        super(message);
+    }
+}
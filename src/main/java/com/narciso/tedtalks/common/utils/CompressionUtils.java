@@ -0,0 +1,74 @@
+package com.narciso.tedtalks.common.utils;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Wraps an input stream in a streaming gzip or zstd decoder when the content is compressed.
+ * The declared content type wins; otherwise the leading magic bytes decide.
+ */
+public final class CompressionUtils {
+    private static final byte[] GZIP_MAGIC = {(byte) 0x1F, (byte) 0x8B};
+    private static final byte[] ZSTD_MAGIC = {(byte) 0x28, (byte) 0xB5, (byte) 0x2F, (byte) 0xFD};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Compression {
+        NONE, GZIP, ZSTD
+    }
+
+    private CompressionUtils() {
+    }
+
+    public static InputStream decompress(InputStream raw, String contentType) throws IOException {
+        InputStream in = raw.markSupported() ? raw : new BufferedInputStream(raw, BUFFER_SIZE);
+        Compression compression = fromContentType(contentType);
+        if (compression == Compression.NONE) {
+            compression = sniff(in);
+        }
+        return switch (compression) {
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+            case ZSTD -> new BufferedInputStream(new ZstdInputStream(in), BUFFER_SIZE);
+            case NONE -> in;
+        };
+    }
+
+    public static Compression fromContentType(String contentType) {
+        if (contentType == null) {
+            return Compression.NONE;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("gzip")) {
+            return Compression.GZIP;
+        }
+        if (type.contains("zstd")) {
+            return Compression.ZSTD;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * Reads the magic bytes of a stream that supports mark/reset and rewinds it.
+     */
+    public static Compression sniff(InputStream in) throws IOException {
+        in.mark(ZSTD_MAGIC.length);
+        byte[] head = in.readNBytes(ZSTD_MAGIC.length);
+        in.reset();
+        if (startsWith(head, GZIP_MAGIC)) {
+            return Compression.GZIP;
+        }
+        if (startsWith(head, ZSTD_MAGIC)) {
+            return Compression.ZSTD;
+        }
+        return Compression.NONE;
+    }
+
+    private static boolean startsWith(byte[] head, byte[] magic) {
+        return head.length >= magic.length && Arrays.equals(head, 0, magic.length, magic, 0, magic.length);
+    }
+}
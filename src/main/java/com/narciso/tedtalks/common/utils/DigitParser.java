@@ -0,0 +1,42 @@
+package com.narciso.tedtalks.common.utils;
+
+/**
+ * Parses non-negative decimal integers without regex, boxing or exceptions.
+ * Failures are reported through the negative result codes below.
+ */
+public final class DigitParser {
+    public static final long BLANK = -1L;
+    public static final long NOT_DIGITS = -2L;
+    public static final long OVERFLOW = -3L;
+
+    private DigitParser() {
+    }
+
+    public static long parseInt(CharSequence raw) {
+        if (raw == null || isBlank(raw)) {
+            return BLANK;
+        }
+        long value = 0;
+        boolean overflow = false;
+        for (int i = 0, n = raw.length(); i < n; i++) {
+            int digit = raw.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_DIGITS;
+            }
+            if (!overflow) {
+                value = value * 10 + digit;
+                overflow = value > Integer.MAX_VALUE;
+            }
+        }
+        return overflow ? OVERFLOW : value;
+    }
+
+    private static boolean isBlank(CharSequence raw) {
+        for (int i = 0, n = raw.length(); i < n; i++) {
+            if (raw.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.narciso.tedtalks.common.utils;
+
+/**
+ * Open-addressing set of primitive longs with linear probing.
+ * Zero is used as the empty-slot marker and tracked separately.
+ */
+public class LongHashSet {
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] slots;
+    private int shift;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public boolean add(long key) {
+        if (key == 0L) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = slots[i];
+            if (current == key) {
+                return false;
+            }
+            if (current == 0L) {
+                slots[i] = key;
+                if (++size * 2 > slots.length) {
+                    rehash(slots.length << 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == 0L) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = slots[i];
+            if (current == key) {
+                return true;
+            }
+            if (current == 0L) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int index(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (long key : old) {
+            if (key != 0L) {
+                int i = index(key);
+                while (slots[i] != 0L) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.narciso.tedtalks.common.utils;
+
+/**
+ * Open-addressing map from primitive long to primitive long with linear probing.
+ * Zero is used as the empty-slot marker for keys and tracked separately.
+ */
+public class LongLongHashMap {
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private long[] values;
+    private int shift;
+    private int size;
+    private boolean containsZero;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @return the previous value, or {@code missing} when the key was absent
+     */
+    public long put(long key, long value, long missing) {
+        if (key == 0L) {
+            long previous = containsZero ? zeroValue : missing;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int mask = keys.length - 1;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                long previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            if (current == 0L) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length << 1);
+                }
+                return missing;
+            }
+        }
+    }
+
+    public void put(long key, long value) {
+        put(key, value, 0L);
+    }
+
+    public long get(long key, long missing) {
+        if (key == 0L) {
+            return containsZero ? zeroValue : missing;
+        }
+        int mask = keys.length - 1;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == 0L) {
+                return missing;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0L) {
+            return containsZero;
+        }
+        int mask = keys.length - 1;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return true;
+            }
+            if (current == 0L) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int index(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != 0L) {
+                int i = index(key);
+                while (keys[i] != 0L) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.narciso.tedtalks.common.utils;
+
+import java.time.YearMonth;
+
+/**
+ * Parses the CSV {@code "MMMM yyyy"} dates (e.g. {@code "December 2021"}) through a
+ * month-name lookup instead of {@link java.time.format.DateTimeFormatter}.
+ * Accepts exactly what {@code DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH)}
+ * accepts for four-digit years; anything else yields {@code null}.
+ */
+public final class MonthYearParser {
+    private static final String[] MONTHS = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+    };
+    private static final YearMonth[] CACHE = new YearMonth[12 * 200];
+    private static final int CACHE_FIRST_YEAR = 1900;
+
+    private MonthYearParser() {
+    }
+
+    public static YearMonth parse(CharSequence raw) {
+        if (raw == null) {
+            return null;
+        }
+        int space = -1;
+        for (int i = 0, n = raw.length(); i < n; i++) {
+            if (raw.charAt(i) == ' ') {
+                space = i;
+                break;
+            }
+        }
+        if (space < 3 || raw.length() - space - 1 != 4) {
+            return null;
+        }
+        int month = month(raw, space);
+        if (month == 0) {
+            return null;
+        }
+        int year = 0;
+        for (int i = space + 1, n = raw.length(); i < n; i++) {
+            int digit = raw.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            year = year * 10 + digit;
+        }
+        if (year == 0) {
+            return null;
+        }
+        return of(year, month);
+    }
+
+    private static int month(CharSequence raw, int length) {
+        for (int m = 0; m < MONTHS.length; m++) {
+            String name = MONTHS[m];
+            if (name.length() == length && name.charAt(0) == raw.charAt(0) && matches(name, raw)) {
+                return m + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean matches(String name, CharSequence raw) {
+        for (int i = 1, n = name.length(); i < n; i++) {
+            if (name.charAt(i) != raw.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static YearMonth of(int year, int month) {
+        int slot = (year - CACHE_FIRST_YEAR) * 12 + month - 1;
+        if (slot < 0 || slot >= CACHE.length) {
+            return YearMonth.of(year, month);
+        }
+        YearMonth ym = CACHE[slot];
+        if (ym == null) {
+            ym = YearMonth.of(year, month);
+            CACHE[slot] = ym;
+        }
+        return ym;
+    }
+}
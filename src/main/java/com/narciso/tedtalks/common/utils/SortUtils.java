@@ -2,6 +2,7 @@ package com.narciso.tedtalks.common.utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Sort;
 
 public class SortUtils {
@@ -9,13 +10,24 @@ public class SortUtils {
         try {
             List<Sort.Order> orders = new ArrayList<>();
             if (sort != null) {
+                boolean directionPending = false;
                 for (String sortOrder : sort) {
                     String[] _sort = sortOrder.split(",");
                     if (_sort.length == 2) {
                         Sort.Direction direction = Sort.Direction.fromString(_sort[1]);
                         orders.add(new Sort.Order(direction, _sort[0]));
+                        directionPending = false;
                     } else if (_sort.length == 1) {
-                        orders.add(new Sort.Order(Sort.Direction.ASC, _sort[0]));
+                        Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(_sort[0]);
+                        if (direction.isPresent() && directionPending) {
+                            // a single "property,direction" parameter is split in two by the String[] binding
+                            Sort.Order last = orders.remove(orders.size() - 1);
+                            orders.add(new Sort.Order(direction.get(), last.getProperty()));
+                            directionPending = false;
+                        } else {
+                            orders.add(new Sort.Order(Sort.Direction.ASC, _sort[0]));
+                            directionPending = true;
+                        }
                     }
                 }
             }
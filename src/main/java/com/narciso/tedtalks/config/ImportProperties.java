@@ -0,0 +1,26 @@
+package com.narciso.tedtalks.config;
+
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "tedtalks.import")
+public class ImportProperties {
+    private int batchSize = 500;
+    private int commitSize = 5000;
+    private int chunkSize = 1000;
+    private int queueCapacity = 16;
+    private int validationThreads = Runtime.getRuntime().availableProcessors();
+    private int maxConcurrentJobs = 2;
+    private int maxQueuedJobs = 8;
+    private int retainedJobs = 100;
+    private int errorSampleSize = 100;
+    private String directory;
+    private int mapWindowSize = 64 * 1024 * 1024;
+    // files dropped here are imported as they appear; unset disables the watcher
+    private String watchDirectory;
+    private int watchWorkers = 2;
+    private int watchQueueCapacity = 16;
+    private ImportMode watchMode = ImportMode.INSERT;
+}
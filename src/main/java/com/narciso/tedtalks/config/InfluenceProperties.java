@@ -0,0 +1,15 @@
+package com.narciso.tedtalks.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "tedtalks.influence")
+public class InfluenceProperties {
+    // influence results kept in memory, across years, strategies and kinds of result
+    private int cacheSize = 256;
+    // sum talks held in memory as primitive columns instead of querying speaker_year_stats
+    private boolean columnarEngine = false;
+    // talks of one year summed by a single fork-join task before it splits the range in two
+    private int columnarSplitThreshold = 16 * 1024;
+}
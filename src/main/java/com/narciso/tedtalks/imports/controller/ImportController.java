@@ -1,32 +1,134 @@
 package com.narciso.tedtalks.imports.controller;
 
+import com.narciso.tedtalks.common.exception.InvalidImportRequestException;
+import com.narciso.tedtalks.imports.domain.ImportMode;
 import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.dto.ImportJobDto;
+import com.narciso.tedtalks.imports.service.ImportJobService;
 import com.narciso.tedtalks.imports.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/import")
 @RequiredArgsConstructor
 public class ImportController {
     private final ImportService importService;
+    private final ImportJobService importJobService;
 
-    @PostMapping("/talks")
-    public ResponseEntity<ImportResult> importTalks(@RequestParam("file") MultipartFile file) {
+    /**
+     * Imports an uploaded file; {@code dryRun} validates it without writing, {@code async} returns a job to poll.
+     */
+    @PostMapping(value = "/talks", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importTalks(@RequestParam("file") MultipartFile file,
+                                         @RequestParam(defaultValue = "false") boolean force,
+                                         @RequestParam(defaultValue = "INSERT") ImportMode mode,
+                                         @RequestParam(defaultValue = "false") boolean dryRun,
+                                         @RequestParam(defaultValue = "false") boolean async) throws IOException {
+        checkOptions(dryRun, async);
+        if (dryRun) {
+            return ResponseEntity.ok(importService.dryRun(file, mode));
+        }
+        if (async) {
+            return accepted(importJobService.submit(file, force, mode));
+        }
+        return imported(() -> importService.importCsv(file, force, mode));
+    }
+
+    /**
+     * The same import for a raw CSV body, with the same options. A synchronous import parses the body while it
+     * is still arriving, so it is never answered from the history and {@code force} only matters for {@code async}.
+     */
+    @PostMapping(value = "/talks", consumes = {"text/csv", "application/gzip", "application/zstd"})
+    public ResponseEntity<?> importTalksStream(HttpServletRequest request,
+                                               @RequestParam(defaultValue = "false") boolean force,
+                                               @RequestParam(defaultValue = "INSERT") ImportMode mode,
+                                               @RequestParam(defaultValue = "false") boolean dryRun,
+                                               @RequestParam(defaultValue = "false") boolean async) throws IOException {
+        checkOptions(dryRun, async);
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        String encoding = contentEncoding != null ? contentEncoding : request.getContentType();
+        if (dryRun) {
+            return ResponseEntity.ok(importService.dryRun(request.getInputStream(), encoding, mode));
+        }
+        if (async) {
+            return accepted(importJobService.submit(request.getInputStream(), force, mode));
+        }
+        InputStream body = request.getInputStream();
+        return imported(() -> importService.importCsv(body, encoding, mode));
+    }
+
+    @PostMapping("/files")
+    public ImportResult importFile(@RequestParam("name") String name,
+                                   @RequestParam(defaultValue = "false") boolean force,
+                                   @RequestParam(defaultValue = "INSERT") ImportMode mode) throws IOException {
+        return importService.importFile(name, force, mode);
+    }
+
+    @PostMapping(value = "/files", params = "async=true")
+    public ResponseEntity<ImportJobDto> importFileAsync(@RequestParam("name") String name,
+                                                        @RequestParam(defaultValue = "false") boolean force,
+                                                        @RequestParam(defaultValue = "INSERT") ImportMode mode) throws IOException {
+        return accepted(importJobService.submitFile(name, force, mode));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ImportJobDto getJob(@PathVariable String id) {
+        return importJobService.getJob(id);
+    }
+
+    // every error of an async job; synchronous imports only report their counts and sample
+    @GetMapping(value = "/jobs/{id}/errors", produces = "application/x-ndjson")
+    public ResponseEntity<Resource> getJobErrors(@PathVariable String id) {
+        return ResponseEntity.ok(new FileSystemResource(importJobService.getErrorsFile(id)));
+    }
+
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<ImportJobDto> resumeJob(@PathVariable String id) {
+        return accepted(importJobService.resume(id));
+    }
+
+    private void checkOptions(boolean dryRun, boolean async) {
+        if (dryRun && async) {
+            throw new InvalidImportRequestException("dryRun and async cannot be combined; a dry run answers right away");
+        }
+    }
+
+    // a synchronous import that cannot be read to the end answers 400 with an empty result, whatever its content type
+    private ResponseEntity<ImportResult> imported(Callable<ImportResult> importCall) {
         try {
-            ImportResult result = importService.importCsv(file);
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok(importCall.call());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                     new ImportResult(0, List.of())
             );
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ImportJobDto> accepted(ImportJobDto job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/import/jobs/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
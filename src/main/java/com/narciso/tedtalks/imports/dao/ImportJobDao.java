@@ -0,0 +1,79 @@
+package com.narciso.tedtalks.imports.dao;
+
+import com.narciso.tedtalks.imports.domain.ImportJob;
+import com.narciso.tedtalks.imports.domain.ImportJobState;
+import com.narciso.tedtalks.imports.domain.ImportJobStatus;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class ImportJobDao {
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ImportJobDao(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<ImportJobState> findUnfinished() {
+        var sql = "SELECT * FROM import_jobs WHERE status <> :completed ORDER BY submitted_at";
+        var params = new MapSqlParameterSource().addValue("completed", ImportJobStatus.COMPLETED.name());
+        return jdbc.query(sql, params, (rs, rowNum) ->
+                ImportJobState.builder()
+                        .id(rs.getString("id"))
+                        .fileName(rs.getString("file_name"))
+                        .source(rs.getString("source"))
+                        .spooled(rs.getBoolean("spooled"))
+                        .force(rs.getBoolean("force_import"))
+                        .mode(ImportMode.valueOf(rs.getString("mode")))
+                        .errorsFile(rs.getString("errors_file"))
+                        .status(ImportJobStatus.valueOf(rs.getString("status")))
+                        .submittedAt(rs.getTimestamp("submitted_at").toInstant())
+                        .checkpointLine(rs.getInt("checkpoint_line"))
+                        .rowsImported(rs.getLong("rows_imported"))
+                        .failureMessage(rs.getString("failure_message"))
+                        .build()
+        );
+    }
+
+    public void save(ImportJob job) {
+        var sql = "MERGE INTO import_jobs (id, file_name, source, spooled, force_import, mode, errors_file, status, " +
+                "submitted_at, checkpoint_line, rows_imported, failure_message) KEY (id) VALUES (:id, :fileName, " +
+                ":source, :spooled, :force, :mode, :errorsFile, :status, :submittedAt, :line, :rowsImported, :failure)";
+        String failure = job.getFailureMessage();
+        var params = new MapSqlParameterSource()
+                .addValue("id", job.getId())
+                .addValue("fileName", job.getFileName())
+                .addValue("source", job.getSource().toString())
+                .addValue("spooled", job.isSpooled())
+                .addValue("force", job.isForce())
+                .addValue("mode", job.getMode().name())
+                .addValue("errorsFile", job.getCheckpoint().getErrors().getSpillFile().toString())
+                .addValue("status", job.getStatus().name())
+                .addValue("submittedAt", Timestamp.from(job.getSubmittedAt()))
+                .addValue("line", job.getCheckpoint().getLine())
+                .addValue("rowsImported", job.getCheckpoint().getRowsImported())
+                .addValue("failure", failure == null || failure.length() <= MAX_FAILURE_MESSAGE_LENGTH
+                        ? failure : failure.substring(0, MAX_FAILURE_MESSAGE_LENGTH));
+        jdbc.update(sql, params);
+    }
+
+    public void saveCheckpoint(String id, int line, long rowsImported) {
+        var sql = "UPDATE import_jobs SET checkpoint_line = :line, rows_imported = :rowsImported WHERE id = :id";
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("line", line)
+                .addValue("rowsImported", rowsImported);
+        jdbc.update(sql, params);
+    }
+
+    public void delete(String id) {
+        jdbc.update("DELETE FROM import_jobs WHERE id = :id", new MapSqlParameterSource("id", id));
+    }
+}
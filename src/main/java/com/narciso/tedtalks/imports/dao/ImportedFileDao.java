@@ -0,0 +1,72 @@
+package com.narciso.tedtalks.imports.dao;
+
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportedFile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public class ImportedFileDao {
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ImportedFileDao(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<ImportedFile> findByContentHash(String contentHash) {
+        var sql = "SELECT * FROM imported_files WHERE content_hash = :hash";
+        var params = new MapSqlParameterSource().addValue("hash", contentHash);
+        return jdbc.query(sql, params, (rs, rowNum) ->
+                ImportedFile.builder()
+                        .contentHash(rs.getString("content_hash"))
+                        .fileName(rs.getString("file_name"))
+                        .importedAt(rs.getTimestamp("imported_at").toInstant())
+                        .importedCount(rs.getLong("imported_count"))
+                        .errorCount(rs.getLong("error_count"))
+                        .mode(ImportMode.valueOf(rs.getString("mode")))
+                        .firstYear(rs.getObject("first_year", Integer.class))
+                        .lastYear(rs.getObject("last_year", Integer.class))
+                        .build()
+        ).stream().findFirst();
+    }
+
+    public void save(ImportedFile file) {
+        var sql = "MERGE INTO imported_files (content_hash, file_name, imported_at, imported_count, error_count, mode, " +
+                "first_year, last_year) KEY (content_hash) VALUES (:hash, :fileName, :importedAt, :importedCount, " +
+                ":errorCount, :mode, :firstYear, :lastYear)";
+        var params = new MapSqlParameterSource()
+                .addValue("hash", file.getContentHash())
+                .addValue("fileName", file.getFileName())
+                .addValue("importedAt", Timestamp.from(file.getImportedAt()))
+                .addValue("importedCount", file.getImportedCount())
+                .addValue("errorCount", file.getErrorCount())
+                .addValue("mode", file.getMode().name())
+                .addValue("firstYear", file.getFirstYear())
+                .addValue("lastYear", file.getLastYear());
+        jdbc.update(sql, params);
+    }
+
+    /**
+     * Forgets the files whose talks span one of {@code years}; with {@code upsertsOnly} only files imported
+     * as upserts.
+     */
+    public int deleteCoveringYears(Collection<Integer> years, boolean upsertsOnly) {
+        var sql = "DELETE FROM imported_files WHERE :year BETWEEN first_year AND last_year" +
+                (upsertsOnly ? " AND mode = 'UPSERT'" : "");
+        var params = years.stream()
+                .map(year -> new MapSqlParameterSource("year", year))
+                .toArray(SqlParameterSource[]::new);
+        return Arrays.stream(jdbc.batchUpdate(sql, params)).sum();
+    }
+
+    public int deleteAll(boolean upsertsOnly) {
+        return jdbc.getJdbcTemplate().update("DELETE FROM imported_files" + (upsertsOnly ? " WHERE mode = 'UPSERT'" : ""));
+    }
+}
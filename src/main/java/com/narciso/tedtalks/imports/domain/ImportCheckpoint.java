@@ -0,0 +1,46 @@
+package com.narciso.tedtalks.imports.domain;
+
+import lombok.Getter;
+
+import java.util.function.Consumer;
+
+/**
+ * What an import has durably done so far: the last CSV line whose rows are committed,
+ * how many rows were imported up to it and the errors reported for lines up to it.
+ * A failed import is resumed by skipping every line up to {@link #getLine()}.
+ */
+@Getter
+public class ImportCheckpoint {
+    private static final Consumer<ImportCheckpoint> NO_LISTENER = checkpoint -> {
+    };
+
+    private final ImportErrorLog errors;
+    private final Consumer<ImportCheckpoint> onAdvance;
+    private volatile int line;
+    private volatile long rowsImported;
+
+    public ImportCheckpoint(ImportErrorLog errors) {
+        this(errors, 0, 0, NO_LISTENER);
+    }
+
+    /**
+     * @param onAdvance told of every advance once the errors up to it are flushed, to store the checkpoint
+     */
+    public ImportCheckpoint(ImportErrorLog errors, int line, long rowsImported, Consumer<ImportCheckpoint> onAdvance) {
+        this.errors = errors;
+        this.line = line;
+        this.rowsImported = rowsImported;
+        this.onAdvance = onAdvance;
+    }
+
+    public void advance(int line, long rowsImported) {
+        this.rowsImported = rowsImported;
+        this.line = line;
+        errors.flush();
+        onAdvance.accept(this);
+    }
+
+    public boolean isStarted() {
+        return line > 0;
+    }
+}
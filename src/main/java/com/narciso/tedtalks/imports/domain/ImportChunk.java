@@ -0,0 +1,19 @@
+package com.narciso.tedtalks.imports.domain;
+
+import com.narciso.tedtalks.common.errors.ImportError;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportChunk {
+    private List<ImportRow> rows;
+    private List<ImportError> errors = new ArrayList<>();
+    private int recordCount;
+    private boolean last;
+
+    public ImportChunk(int capacity) {
+        this.rows = new ArrayList<>(capacity);
+    }
+}
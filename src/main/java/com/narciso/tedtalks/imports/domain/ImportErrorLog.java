@@ -0,0 +1,154 @@
+package com.narciso.tedtalks.imports.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects import errors in constant memory: per-type counters and the first {@code sampleSize}
+ * errors are kept, and every error is appended as one JSON line to the spill file when there is one.
+ */
+public class ImportErrorLog implements Closeable {
+    private static final ObjectWriter JSON = JsonMapper.builder().findAndAddModules().build().writer();
+    private static final ObjectReader JSON_READER = JsonMapper.builder().build().reader();
+
+    private final int sampleSize;
+    @Getter
+    private final Path spillFile;
+    private final List<ImportError> sample = new ArrayList<>();
+    private final long[] counts = new long[ErrorType.values().length];
+    @Getter
+    private long count;
+    private Writer spill;
+
+    public ImportErrorLog(int sampleSize, Path spillFile) {
+        this.sampleSize = sampleSize;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Rebuilds the log of an import interrupted by a restart from its spill file. Only the errors of lines up to
+     * {@code upToLine}, the import's checkpoint, are kept; the file is rewritten without the others, including
+     * a line torn by the interruption, so that the resumed import appends to what its checkpoint covers.
+     */
+    public static ImportErrorLog restore(int sampleSize, Path spillFile, int upToLine) throws IOException {
+        ImportErrorLog log = new ImportErrorLog(sampleSize, spillFile);
+        if (!Files.exists(spillFile)) {
+            return log;
+        }
+        Path kept = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(kept, StandardCharsets.UTF_8)) {
+            for (String json : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+                ImportError error = parse(json);
+                if (error != null && error.getLine() <= upToLine) {
+                    log.count(error);
+                    writer.write(json);
+                    writer.write('\n');
+                }
+            }
+        }
+        Files.move(kept, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return log;
+    }
+
+    public void add(ImportError error) {
+        count(error);
+        if (spillFile != null) {
+            write(error);
+        }
+    }
+
+    public List<ImportError> getSample() {
+        return sample;
+    }
+
+    public Map<ErrorType, Long> getCounts() {
+        Map<ErrorType, Long> byType = new EnumMap<>(ErrorType.class);
+        for (ErrorType type : ErrorType.values()) {
+            if (counts[type.ordinal()] > 0) {
+                byType.put(type, counts[type.ordinal()]);
+            }
+        }
+        return byType;
+    }
+
+    public ImportResult toResult(int importedCount) {
+        return new ImportResult(importedCount, List.copyOf(sample), count, getCounts());
+    }
+
+    public void flush() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            spill = null;
+        }
+    }
+
+    private void count(ImportError error) {
+        count++;
+        counts[error.getType().ordinal()]++;
+        if (sample.size() < sampleSize) {
+            sample.add(error);
+        }
+    }
+
+    private static ImportError parse(String json) {
+        try {
+            JsonNode node = JSON_READER.readTree(json);
+            return new ImportError(node.path("line").asInt(), ErrorType.valueOf(node.path("type").asText()),
+                    node.path("field").textValue(), node.path("value").textValue(), node.path("message").textValue());
+        } catch (IOException | IllegalArgumentException e) {
+            // the last line may have been cut short by the interruption
+            return null;
+        }
+    }
+
+    private void write(ImportError error) {
+        try {
+            if (spill == null) {
+                // opened lazily and in append mode, so a resumed import keeps adding to the same file
+                spill = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            spill.write(JSON.writeValueAsString(error));
+            spill.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
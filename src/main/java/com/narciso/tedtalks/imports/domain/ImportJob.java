@@ -0,0 +1,65 @@
+package com.narciso.tedtalks.imports.domain;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+@Getter
+public class ImportJob {
+    private final String id;
+    private final String fileName;
+    private final Instant submittedAt;
+    private final Path source;
+    // uploads are copied to a spool file owned by the job; server-side files are read in place
+    private final boolean spooled;
+    // import even when the same content was imported before
+    private final boolean force;
+    private final ImportMode mode;
+    private final ImportProgress progress = new ImportProgress();
+    private final ImportCheckpoint checkpoint;
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile ImportResult result;
+    private volatile String failureMessage;
+
+    public ImportJob(String id, String fileName, Instant submittedAt, Path source, boolean spooled, boolean force,
+                     ImportMode mode, ImportCheckpoint checkpoint) {
+        this.id = id;
+        this.fileName = fileName;
+        this.submittedAt = submittedAt;
+        this.source = source;
+        this.spooled = spooled;
+        this.force = force;
+        this.mode = mode;
+        this.checkpoint = checkpoint;
+    }
+
+    public void markQueued() {
+        failureMessage = null;
+        finishedAt = null;
+        status = ImportJobStatus.QUEUED;
+    }
+
+    public void markRunning() {
+        startedAt = Instant.now();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    public void markCompleted(ImportResult result) {
+        this.result = result;
+        finishedAt = Instant.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    public void markFailed(String message) {
+        failureMessage = message;
+        finishedAt = Instant.now();
+        status = ImportJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED;
+    }
+}
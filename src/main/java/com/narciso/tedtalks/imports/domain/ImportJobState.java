@@ -0,0 +1,31 @@
+package com.narciso.tedtalks.imports.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An import job as stored in {@code import_jobs}, enough to rebuild it and resume it from its checkpoint
+ * after a restart.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobState {
+    private String id;
+    private String fileName;
+    private String source;
+    private boolean spooled;
+    private boolean force;
+    private ImportMode mode;
+    private String errorsFile;
+    private ImportJobStatus status;
+    private Instant submittedAt;
+    private int checkpointLine;
+    private long rowsImported;
+    private String failureMessage;
+}
@@ -0,0 +1,8 @@
+package com.narciso.tedtalks.imports.domain;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
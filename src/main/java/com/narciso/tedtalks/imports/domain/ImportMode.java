@@ -0,0 +1,8 @@
+package com.narciso.tedtalks.imports.domain;
+
+public enum ImportMode {
+    // talks that already exist are left as they are
+    INSERT,
+    // talks that already exist get the views/likes of the file
+    UPSERT
+}
@@ -0,0 +1,85 @@
+package com.narciso.tedtalks.imports.domain;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportProgress {
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    // only counted once committed, so a resumed import keeps them across restore()
+    private final AtomicLong talksCreated = new AtomicLong();
+    private final AtomicLong speakersCreated = new AtomicLong();
+    private final AtomicLong talksUpdated = new AtomicLong();
+    private final AtomicLong rowsUnchanged = new AtomicLong();
+    private final AtomicLong rowsChanged = new AtomicLong();
+
+    public void addRead(long rows) {
+        rowsRead.addAndGet(rows);
+    }
+
+    public void addImported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    public void addFailed(long rows) {
+        rowsFailed.addAndGet(rows);
+    }
+
+    public void addTalksCreated(long talks) {
+        talksCreated.addAndGet(talks);
+    }
+
+    public void addSpeakersCreated(long speakers) {
+        speakersCreated.addAndGet(speakers);
+    }
+
+    public void addTalksUpdated(long talks) {
+        talksUpdated.addAndGet(talks);
+    }
+
+    public void addUnchanged(long rows) {
+        rowsUnchanged.addAndGet(rows);
+    }
+
+    public void addChanged(long rows) {
+        rowsChanged.addAndGet(rows);
+    }
+
+    public void restore(long read, long imported, long failed) {
+        rowsRead.set(read);
+        rowsImported.set(imported);
+        rowsFailed.set(failed);
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    public long getTalksCreated() {
+        return talksCreated.get();
+    }
+
+    public long getSpeakersCreated() {
+        return speakersCreated.get();
+    }
+
+    public long getTalksUpdated() {
+        return talksUpdated.get();
+    }
+
+    public long getRowsUnchanged() {
+        return rowsUnchanged.get();
+    }
+
+    public long getRowsChanged() {
+        return rowsChanged.get();
+    }
+}
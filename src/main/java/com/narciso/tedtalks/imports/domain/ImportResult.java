@@ -1,14 +1,50 @@
 package com.narciso.tedtalks.imports.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.narciso.tedtalks.common.errors.ErrorType;
 import com.narciso.tedtalks.common.errors.ImportError;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
-@AllArgsConstructor
 public class ImportResult {
     private int importedCount;
+    // a sample of at most tedtalks.import.error-sample-size errors; errorCount is the full total
     private List<ImportError> errors;
+    private long errorCount;
+    private Map<ErrorType, Long> errorCounts;
+    private long newTalks;
+    private long newSpeakers;
+    // stored talks whose views/likes were refreshed by an upsert
+    private long updatedTalks;
+    // rows already stored with the same views/likes, and rows whose different views/likes were left unapplied
+    private long unchangedRows;
+    private long changedRows;
+    private ImportMode mode = ImportMode.INSERT;
+    private boolean dryRun;
+    // set when the import stopped early on a critical error
+    private boolean aborted;
+    private String contentHash;
+    // the same content was imported before, so nothing was read this time
+    private boolean alreadyImported;
+    // years spanned by the valid rows, kept with the import history to know which later edits concern it
+    @JsonIgnore
+    private Integer firstYear;
+    @JsonIgnore
+    private Integer lastYear;
+
+    public ImportResult(int importedCount, List<ImportError> errors, long errorCount, Map<ErrorType, Long> errorCounts) {
+        this.importedCount = importedCount;
+        this.errors = errors;
+        this.errorCount = errorCount;
+        this.errorCounts = errorCounts;
+    }
+
+    public ImportResult(int importedCount, List<ImportError> errors) {
+        this(importedCount, errors, errors.size(), new EnumMap<>(ErrorType.class));
+        errors.forEach(e -> errorCounts.merge(e.getType(), 1L, Long::sum));
+    }
 }
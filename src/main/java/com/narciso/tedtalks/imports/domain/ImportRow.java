@@ -0,0 +1,20 @@
+package com.narciso.tedtalks.imports.domain;
+
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRow {
+    private int line;
+    private CsvRecord record;
+    private YearMonth date;
+    private int views;
+    private int likes;
+    private Long speakerId;
+}
@@ -0,0 +1,24 @@
+package com.narciso.tedtalks.imports.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedFile {
+    private String contentHash;
+    private String fileName;
+    private Instant importedAt;
+    private long importedCount;
+    private long errorCount;
+    private ImportMode mode;
+    // years of the talks the file held, null when it held none
+    private Integer firstYear;
+    private Integer lastYear;
+}
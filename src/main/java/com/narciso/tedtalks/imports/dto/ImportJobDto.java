@@ -0,0 +1,30 @@
+package com.narciso.tedtalks.imports.dto;
+
+import com.narciso.tedtalks.imports.domain.ImportJobStatus;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+    private String id;
+    private String fileName;
+    private ImportJobStatus status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private int checkpointLine;
+    private ImportResult result;
+    private String failureMessage;
+}
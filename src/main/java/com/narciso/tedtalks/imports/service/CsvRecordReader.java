@@ -0,0 +1,24 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+
+import java.util.List;
+
+/**
+ * Pulls CSV records one at a time for the {@link ImportPipeline}.
+ */
+interface CsvRecordReader {
+
+    /**
+     * Moves the records rejected since the last call into {@code errors}.
+     *
+     * @return the number of rejected records
+     */
+    int drainRejected(List<ImportError> errors);
+
+    /**
+     * @return the next well-formed record, or {@code null} at the end of the input
+     */
+    CsvRecord next();
+}
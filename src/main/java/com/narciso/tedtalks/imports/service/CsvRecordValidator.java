@@ -0,0 +1,100 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.common.errors.ImportErrorMessage;
+import com.narciso.tedtalks.common.utils.DigitParser;
+import com.narciso.tedtalks.common.utils.MonthYearParser;
+import com.narciso.tedtalks.imports.domain.ImportChunk;
+import com.narciso.tedtalks.imports.domain.ImportRow;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Component
+public class CsvRecordValidator {
+    public ImportChunk validate(ImportChunk chunk) {
+        List<ImportRow> valid = new ArrayList<>(chunk.getRows().size());
+        for (ImportRow raw : chunk.getRows()) {
+            ImportRow row = validate(raw.getRecord(), raw.getLine(), chunk.getErrors());
+            if (row != null) {
+                valid.add(row);
+            }
+        }
+        chunk.getErrors().sort(Comparator.comparingInt(ImportError::getLine));
+        chunk.setRows(valid);
+        return chunk;
+    }
+
+    public ImportRow validate(CsvRecord rec, int line, List<ImportError> errors) {
+        boolean recordHasError = false;
+
+        int views = parseCount("views", rec.getViews(), line, errors);
+        if (views < 0) {
+            recordHasError = true;
+        }
+
+        int likes = parseCount("likes", rec.getLikes(), line, errors);
+        if (likes < 0) {
+            recordHasError = true;
+        }
+
+        String dateRaw = rec.getDate();
+        YearMonth date = null;
+        if (isBlank(dateRaw)) {
+            errors.add(new ImportError(
+                    line, ErrorType.MISSING_FIELD, "date", dateRaw, ImportErrorMessage.EMPTY_FIELD
+            ));
+            recordHasError = true;
+        } else {
+            date = MonthYearParser.parse(dateRaw);
+            if (date == null) {
+                errors.add(new ImportError(
+                        line, ErrorType.DATE_PARSE_ERROR, "date", dateRaw, ImportErrorMessage.DATE_FORMAT
+                ));
+                recordHasError = true;
+            }
+        }
+
+        if (isBlank(rec.getAuthor())) {
+            errors.add(new ImportError(
+                    line, ErrorType.MISSING_FIELD, "author", rec.getAuthor(), ImportErrorMessage.EMPTY_FIELD
+            ));
+            recordHasError = true;
+        }
+        if (isBlank(rec.getTitle())) {
+            errors.add(new ImportError(
+                    line, ErrorType.MISSING_FIELD, "title", rec.getTitle(), ImportErrorMessage.EMPTY_FIELD
+            ));
+            recordHasError = true;
+        }
+
+        if (recordHasError) {
+            return null;
+        }
+        return new ImportRow(line, rec, date, views, likes, null);
+    }
+
+    private int parseCount(String field, String raw, int line, List<ImportError> errors) {
+        long parsed = DigitParser.parseInt(raw);
+        if (parsed >= 0) {
+            return (int) parsed;
+        }
+        if (parsed == DigitParser.BLANK) {
+            errors.add(new ImportError(line, ErrorType.MISSING_FIELD, field, raw, ImportErrorMessage.EMPTY_FIELD));
+        } else if (parsed == DigitParser.NOT_DIGITS) {
+            errors.add(new ImportError(line, ErrorType.NUMBER_PARSE_ERROR, field, raw, ImportErrorMessage.NOT_DIGITS));
+        } else {
+            errors.add(new ImportError(line, ErrorType.NUMBER_PARSE_ERROR, field, raw, ImportErrorMessage.NUMBER_TOO_LARGE));
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(String raw) {
+        return raw == null || raw.trim().isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.imports.dao.ImportedFileDao;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.domain.ImportedFile;
+import com.narciso.tedtalks.talks.domain.StoredTalksChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Remembers the SHA-256 of every file imported to the end without errors, so sending the same bytes again
+ * is answered from the stored summary instead of being read a second time. An edit to stored talks forgets
+ * the imports whose rows span the edited years, in the same transaction, since reading those files again
+ * could then give a different result. Edits that keep a talk's title, speaker and date only forget upserts,
+ * which would write the old values back;
+ * an insert leaves existing talks alone either way. New talks forget nothing.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportHistoryService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ImportedFileDao importedFileDao;
+
+    public String hash(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return hash(in);
+        }
+    }
+
+    public String hash(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            digest.update(buffer, 0, n);
+        }
+        return toHex(digest);
+    }
+
+    /**
+     * @return the summary of an earlier import of the same content, unless {@code force} asks to read it again.
+     * An upsert is only answered by an earlier upsert, since an insert may have left changed rows unapplied.
+     */
+    public Optional<ImportResult> findPrevious(String contentHash, boolean force, ImportMode mode) {
+        if (force) {
+            return Optional.empty();
+        }
+        return importedFileDao.findByContentHash(contentHash)
+                .filter(file -> mode == ImportMode.INSERT || file.getMode() == ImportMode.UPSERT)
+                .map(file -> {
+                    ImportResult result = new ImportResult(Math.toIntExact(file.getImportedCount()), List.of());
+                    result.setErrorCount(file.getErrorCount());
+                    result.setMode(mode);
+                    result.setContentHash(contentHash);
+                    result.setAlreadyImported(true);
+                    return result;
+                });
+    }
+
+    /**
+     * Stores the outcome of a finished import; aborted imports, imports with failed rows and dry runs are
+     * not remembered, so sending them again retries the failed rows.
+     */
+    public ImportResult record(String contentHash, String fileName, ImportResult result) {
+        result.setContentHash(contentHash);
+        if (!result.isAborted() && !result.isDryRun() && result.getErrorCount() == 0) {
+            importedFileDao.save(ImportedFile.builder()
+                    .contentHash(contentHash)
+                    .fileName(fileName)
+                    .importedAt(Instant.now())
+                    .importedCount(result.getImportedCount())
+                    .errorCount(result.getErrorCount())
+                    .mode(result.getMode())
+                    .firstYear(result.getFirstYear())
+                    .lastYear(result.getLastYear())
+                    .build());
+        }
+        return result;
+    }
+
+    // runs in the publisher's transaction, so the history never outlives a rolled-back edit or misses a committed one
+    @EventListener
+    public void onStoredTalksChanged(StoredTalksChangedEvent event) {
+        if (event.allYears()) {
+            importedFileDao.deleteAll(event.sameTalks());
+        } else {
+            importedFileDao.deleteCoveringYears(event.years(), event.sameTalks());
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
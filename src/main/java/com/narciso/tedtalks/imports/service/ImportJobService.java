@@ -0,0 +1,326 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.exception.ImportCapacityExceededException;
+import com.narciso.tedtalks.common.exception.ImportJobStateException;
+import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
+import com.narciso.tedtalks.common.utils.CompressionUtils;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.imports.dao.ImportJobDao;
+import com.narciso.tedtalks.imports.domain.ImportCheckpoint;
+import com.narciso.tedtalks.imports.domain.ImportErrorLog;
+import com.narciso.tedtalks.imports.domain.ImportJob;
+import com.narciso.tedtalks.imports.domain.ImportJobState;
+import com.narciso.tedtalks.imports.domain.ImportJobStatus;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.dto.ImportJobDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs imports in the background. Every job and its checkpoint is kept in {@code import_jobs}, next to the
+ * rows it commits, so a job interrupted by a restart is found again as failed and can be resumed from its
+ * last committed line. The checkpoint is stored just after each chunk commits; a crash in between makes the
+ * resumed job read that chunk again, whose talks are then found stored and counted as unchanged.
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+    private final ImportService importService;
+    private final ImportHistoryService importHistoryService;
+    private final ImportProperties importProperties;
+    private final ImportJobDao importJobDao;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(ImportService importService, ImportHistoryService importHistoryService,
+                            ImportProperties importProperties, ImportJobDao importJobDao) {
+        this.importService = importService;
+        this.importHistoryService = importHistoryService;
+        this.importProperties = importProperties;
+        this.importJobDao = importJobDao;
+        this.executor = new ThreadPoolExecutor(
+                importProperties.getMaxConcurrentJobs(),
+                importProperties.getMaxConcurrentJobs(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(importProperties.getMaxQueuedJobs()),
+                new CustomizableThreadFactory("import-job-"));
+    }
+
+    public ImportJobDto submit(MultipartFile file) throws IOException {
+        return submit(file, false, ImportMode.INSERT);
+    }
+
+    public ImportJobDto submit(MultipartFile file, boolean force, ImportMode mode) throws IOException {
+        // the multipart temp file is gone once the request ends, so the job works on its own copy
+        Path spool = Files.createTempFile("tedtalks-import-", ".csv");
+        file.transferTo(spool);
+
+        return start(newJob(file.getOriginalFilename(), spool, true, force, mode));
+    }
+
+    /**
+     * Spools a raw request body and imports it in the background; compression is recognised by its magic bytes.
+     */
+    public ImportJobDto submit(InputStream body, boolean force, ImportMode mode) throws IOException {
+        Path spool = Files.createTempFile("tedtalks-import-", ".csv");
+        Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+
+        return start(newJob(null, spool, true, force, mode));
+    }
+
+    public ImportJobDto submitFile(String name) throws IOException {
+        return submitFile(name, false, ImportMode.INSERT);
+    }
+
+    public ImportJobDto submitFile(String name, boolean force, ImportMode mode) throws IOException {
+        Path file = importService.resolveFile(name);
+        return start(newJob(file.getFileName().toString(), file, false, force, mode));
+    }
+
+    /**
+     * @return the NDJSON file holding every error the job has reported so far
+     */
+    public Path getErrorsFile(String id) {
+        return findJob(id).getCheckpoint().getErrors().getSpillFile();
+    }
+
+    public ImportJobDto resume(String id) {
+        ImportJob job = findJob(id);
+        synchronized (job) {
+            if (job.getStatus() != ImportJobStatus.FAILED) {
+                throw new ImportJobStateException("Only failed import jobs can be resumed: " + id);
+            }
+            job.markQueued();
+            importJobDao.save(job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                job.markFailed("Resume rejected, too many import jobs in progress");
+                importJobDao.save(job);
+                throw new ImportCapacityExceededException("Too many import jobs in progress, try again later");
+            }
+        }
+        return toDto(job);
+    }
+
+    /**
+     * Brings back the jobs a previous run left unfinished, as failed jobs waiting to be resumed.
+     */
+    @PostConstruct
+    public void restore() {
+        for (ImportJobState state : importJobDao.findUnfinished()) {
+            try {
+                ImportJob job = rebuild(state);
+                job.markFailed(state.getStatus() == ImportJobStatus.FAILED
+                        ? state.getFailureMessage() : "Interrupted by a restart");
+                importJobDao.save(job);
+                jobs.put(job.getId(), job);
+            } catch (IOException e) {
+                log.error("Could not restore import job {}", state.getId(), e);
+            }
+        }
+    }
+
+    public ImportJobDto getJob(String id) {
+        return toDto(findJob(id));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ImportJob newJob(String fileName, Path source, boolean spooled, boolean force,
+                             ImportMode mode) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path errors = Files.createTempFile("tedtalks-import-errors-", ".ndjson");
+        ImportErrorLog errorLog = new ImportErrorLog(importProperties.getErrorSampleSize(), errors);
+        return new ImportJob(id, fileName, Instant.now(), source, spooled, force, mode, storedCheckpoint(id, errorLog, 0, 0));
+    }
+
+    private ImportJob rebuild(ImportJobState state) throws IOException {
+        int line = state.getCheckpointLine();
+        ImportErrorLog errorLog = ImportErrorLog.restore(importProperties.getErrorSampleSize(),
+                Path.of(state.getErrorsFile()), line);
+        ImportJob job = new ImportJob(state.getId(), state.getFileName(), state.getSubmittedAt(), Path.of(state.getSource()),
+                state.isSpooled(), state.isForce(), state.getMode(),
+                storedCheckpoint(state.getId(), errorLog, line, state.getRowsImported()));
+        if (line > 0) {
+            job.getProgress().restore(line - 1L, state.getRowsImported(), line - 1L - state.getRowsImported());
+        }
+        return job;
+    }
+
+    private ImportCheckpoint storedCheckpoint(String id, ImportErrorLog errorLog, int line, long rowsImported) {
+        return new ImportCheckpoint(errorLog, line, rowsImported,
+                checkpoint -> importJobDao.saveCheckpoint(id, checkpoint.getLine(), checkpoint.getRowsImported()));
+    }
+
+    private ImportJobDto start(ImportJob job) {
+        jobs.put(job.getId(), job);
+        importJobDao.save(job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            importJobDao.delete(job.getId());
+            discardSource(job);
+            deleteQuietly(job.getCheckpoint().getErrors().getSpillFile());
+            throw new ImportCapacityExceededException("Too many import jobs in progress, try again later");
+        }
+        evictFinishedJobs();
+        return toDto(job);
+    }
+
+    private ImportJob findJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found: " + id);
+        }
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        job.markRunning();
+        try {
+            importJobDao.save(job);
+            String hash = importHistoryService.hash(job.getSource());
+            // a resumed job has already started writing, so it always runs to the end
+            Optional<ImportResult> previous = importHistoryService.findPrevious(hash,
+                    job.isForce() || job.getCheckpoint().isStarted(), job.getMode());
+            job.markCompleted(previous.isPresent() ? previous.get() : importHistoryService.record(hash, job.getFileName(),
+                    job.isSpooled() ? importSpooled(job) : importService.importFile(
+                            job.getSource(), job.getProgress(), job.getCheckpoint(), job.getMode())));
+            forgetQuietly(job);
+            discardSource(job);
+        } catch (Exception e) {
+            // the source is kept so the job can be resumed from its checkpoint
+            log.error("Import job {} failed after line {}", job.getId(), job.getCheckpoint().getLine(), e);
+            // under the job lock, so a resume cannot be stored before the failure it resumes
+            synchronized (job) {
+                job.markFailed(e.getMessage());
+                saveQuietly(job);
+            }
+        } finally {
+            job.getCheckpoint().getErrors().close();
+        }
+    }
+
+    private ImportResult importSpooled(ImportJob job) throws IOException {
+        try (InputStream in = CompressionUtils.decompress(Files.newInputStream(job.getSource()), null)) {
+            return importService.importCsv(in, job.getProgress(), job.getCheckpoint(), job.getMode());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - importProperties.getRetainedJobs();
+        if (excess <= 0) {
+            return;
+        }
+        // finishedAt is read under the job lock, since resume clears it
+        List<FinishedJob> finished = new ArrayList<>();
+        for (ImportJob job : jobs.values()) {
+            synchronized (job) {
+                if (job.isFinished()) {
+                    finished.add(new FinishedJob(job, job.getFinishedAt()));
+                }
+            }
+        }
+        finished.sort(Comparator.comparing(FinishedJob::finishedAt));
+        for (FinishedJob candidate : finished.subList(0, Math.min(excess, finished.size()))) {
+            ImportJob job = candidate.job();
+            synchronized (job) {
+                // resumed in the meantime
+                if (!job.isFinished()) {
+                    continue;
+                }
+                jobs.remove(job.getId());
+            }
+            importJobDao.delete(job.getId());
+            discardSource(job);
+            deleteQuietly(job.getCheckpoint().getErrors().getSpillFile());
+        }
+    }
+
+    private record FinishedJob(ImportJob job, Instant finishedAt) {
+    }
+
+    private ImportJobDto toDto(ImportJob job) {
+        Instant start = job.getStartedAt();
+        Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+        double seconds = start == null ? 0 : Duration.between(start, end).toMillis() / 1000.0;
+        long rowsRead = job.getProgress().getRowsRead();
+
+        return ImportJobDto.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(start)
+                .finishedAt(job.getFinishedAt())
+                .rowsRead(rowsRead)
+                .rowsImported(job.getProgress().getRowsImported())
+                .rowsFailed(job.getProgress().getRowsFailed())
+                .rowsPerSecond(seconds > 0 ? rowsRead / seconds : 0)
+                .checkpointLine(job.getCheckpoint().getLine())
+                .result(job.getResult())
+                .failureMessage(job.getFailureMessage())
+                .build();
+    }
+
+    private void discardSource(ImportJob job) {
+        if (job.isSpooled()) {
+            deleteQuietly(job.getSource());
+        }
+    }
+
+    private void saveQuietly(ImportJob job) {
+        try {
+            importJobDao.save(job);
+        } catch (RuntimeException e) {
+            // the job is still failed in memory; after a restart it comes back as interrupted
+            log.warn("Could not store the failure of import job {}", job.getId(), e);
+        }
+    }
+
+    // a completed job has nothing left to resume
+    private void forgetQuietly(ImportJob job) {
+        try {
+            importJobDao.delete(job.getId());
+        } catch (RuntimeException e) {
+            log.warn("Could not forget completed import job {}", job.getId(), e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.imports.domain.ImportChunk;
+import com.narciso.tedtalks.imports.domain.ImportRow;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reads CSV records on a reader thread, validates chunks of them on a worker pool and
+ * hands the validated chunks back to the calling thread in file order.
+ */
+@Component
+public class ImportPipeline {
+    private final CsvRecordValidator validator;
+    private final ImportProperties importProperties;
+    private final ExecutorService readers;
+    private final ExecutorService workers;
+
+    public ImportPipeline(CsvRecordValidator validator, ImportProperties importProperties) {
+        this.validator = validator;
+        this.importProperties = importProperties;
+        this.readers = Executors.newCachedThreadPool(daemonThreads("import-reader-"));
+        this.workers = Executors.newFixedThreadPool(
+                Math.max(1, importProperties.getValidationThreads()), daemonThreads("import-validate-"));
+    }
+
+    public void run(Reader source, Consumer<ImportChunk> writer) {
+        run(() -> new OpenCsvRecordReader(source), writer);
+    }
+
+    void run(Supplier<CsvRecordReader> source, Consumer<ImportChunk> writer) {
+        BlockingQueue<Future<ImportChunk>> pending = new ArrayBlockingQueue<>(importProperties.getQueueCapacity());
+        Future<?> reading = readers.submit(() -> read(source, pending));
+        try {
+            while (true) {
+                Future<ImportChunk> next = pending.poll(1, TimeUnit.SECONDS);
+                if (next == null) {
+                    if (!reading.isDone() || (next = pending.poll()) == null) {
+                        if (reading.isDone()) {
+                            reading.get();
+                            throw new IllegalStateException("CSV reader stopped before the end of the file");
+                        }
+                        continue;
+                    }
+                }
+                ImportChunk chunk = next.get();
+                writer.accept(chunk);
+                if (chunk.isLast()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            reading.cancel(true);
+            pending.forEach(f -> f.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private Void read(Supplier<CsvRecordReader> opener, BlockingQueue<Future<ImportChunk>> pending) throws InterruptedException {
+        int chunkSize = importProperties.getChunkSize();
+        ImportChunk chunk = new ImportChunk(chunkSize);
+        // pull records one at a time; rejected lines are drained first so line numbers stay aligned
+        int currentLine = 1;
+        try {
+            CsvRecordReader source = opener.get();
+            while (true) {
+                int rejected = source.drainRejected(chunk.getErrors());
+                currentLine += rejected;
+                chunk.setRecordCount(chunk.getRecordCount() + rejected);
+                CsvRecord rec = source.next();
+                if (rec == null) {
+                    break;
+                }
+                currentLine++;
+                chunk.getRows().add(new ImportRow(currentLine, rec, null, 0, 0, null));
+                chunk.setRecordCount(chunk.getRecordCount() + 1);
+                if (chunk.getRows().size() >= chunkSize) {
+                    submit(chunk, pending);
+                    chunk = new ImportChunk(chunkSize);
+                }
+            }
+        } catch (RuntimeException e) {
+            chunk.getErrors().add(new ImportError(
+                    -1,
+                    ErrorType.GENERIC_ERROR,
+                    null,
+                    null,
+                    "Critical error during CSV parsing: " + e.getMessage()
+            ));
+        }
+        chunk.setLast(true);
+        submit(chunk, pending);
+        return null;
+    }
+
+    private void submit(ImportChunk chunk, BlockingQueue<Future<ImportChunk>> pending) throws InterruptedException {
+        if (chunk.getRows().isEmpty()) {
+            pending.put(CompletableFuture.completedFuture(chunk));
+        } else {
+            pending.put(workers.submit(() -> validator.validate(chunk)));
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
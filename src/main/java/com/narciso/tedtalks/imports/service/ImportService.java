@@ -2,189 +2,495 @@ package com.narciso.tedtalks.imports.service;
 
 import com.narciso.tedtalks.common.errors.ErrorType;
 import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
+import com.narciso.tedtalks.common.utils.CompressionUtils;
+import com.narciso.tedtalks.common.utils.LongHashSet;
+import com.narciso.tedtalks.common.utils.LongLongHashMap;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.imports.domain.ImportCheckpoint;
+import com.narciso.tedtalks.imports.domain.ImportErrorLog;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportProgress;
 import com.narciso.tedtalks.imports.domain.ImportResult;
-import com.narciso.tedtalks.imports.dto.CsvRecord;
+import com.narciso.tedtalks.imports.domain.ImportRow;
 import com.narciso.tedtalks.speakers.service.SpeakerService;
+import com.narciso.tedtalks.talks.domain.Talk;
+import com.narciso.tedtalks.talks.domain.TalkFingerprint;
 import com.narciso.tedtalks.talks.service.TalkService;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
-import com.opencsv.exceptions.CsvException;
-import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class ImportService {
     private final SpeakerService speakerService;
     private final TalkService talkService;
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+    private final ImportProperties importProperties;
+    private final ImportPipeline importPipeline;
+    private final TransactionOperations transactionOperations;
+    private final ImportHistoryService importHistoryService;
 
     public ImportResult importCsv(MultipartFile file) throws IOException {
-        List<ImportError> errors = new ArrayList<>();
-        int successCount = 0;
-
-        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            CsvToBean<CsvRecord> csv = new CsvToBeanBuilder<CsvRecord>(reader)
-                    .withType(CsvRecord.class)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withThrowExceptions(false)
-                    .build();
-
-            for (CsvException ex : csv.getCapturedExceptions()) {
-                int line = Math.toIntExact(ex.getLineNumber());
-                ErrorType type = ex instanceof CsvRequiredFieldEmptyException
-                        ? ErrorType.MISSING_FIELD
-                        : ErrorType.COLUMN_MISMATCH;
-                errors.add(new ImportError(
-                        line,
-                        type,
-                        null,
-                        null,
-                        ex.getMessage()
-                ));
-            }
+        return importCsv(file, false, ImportMode.INSERT);
+    }
+
+    /**
+     * @param force read the file even when the same content was imported before
+     */
+    public ImportResult importCsv(MultipartFile file, boolean force, ImportMode mode) throws IOException {
+        String hash;
+        try (InputStream in = file.getInputStream()) {
+            hash = importHistoryService.hash(in);
+        }
+        Optional<ImportResult> previous = importHistoryService.findPrevious(hash, force, mode);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+        InputStream in = CompressionUtils.decompress(file.getInputStream(), file.getContentType());
+        return importHistoryService.record(hash, file.getOriginalFilename(),
+                importCsv(in, new ImportProgress(), newCheckpoint(), mode));
+    }
+
+    public ImportResult importCsv(InputStream body, String encoding) throws IOException {
+        return importCsv(body, encoding, ImportMode.INSERT);
+    }
+
+    /**
+     * Imports straight from a request body; {@code encoding} is the Content-Encoding or Content-Type hint.
+     * The body is parsed while it is still arriving and hashed on the way through. As it can be read only once,
+     * it is never answered from the history, but a clean import is recorded there like any other.
+     */
+    public ImportResult importCsv(InputStream body, String encoding, ImportMode mode) throws IOException {
+        MessageDigest digest = ImportHistoryService.newDigest();
+        // buffered above the digest, so the bytes re-read after sniffing the compression are hashed once
+        InputStream in = CompressionUtils.decompress(new BufferedInputStream(new DigestInputStream(body, digest)), encoding);
+        ImportResult result = importCsv(in, new ImportProgress(), newCheckpoint(), mode);
+        return importHistoryService.record(ImportHistoryService.toHex(digest), null, result);
+    }
+
+    public ImportResult importCsv(InputStream in, ImportProgress progress, ImportCheckpoint checkpoint) throws IOException {
+        return importCsv(in, progress, checkpoint, ImportMode.INSERT);
+    }
+
+    /**
+     * @param in the plain CSV; callers decompress it first, so every import is decoded exactly once
+     */
+    public ImportResult importCsv(InputStream in, ImportProgress progress, ImportCheckpoint checkpoint,
+                                  ImportMode mode) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(in))) {
+            return importCsv(reader, progress, checkpoint, mode);
+        }
+    }
+
+    public ImportResult importCsv(Reader reader) {
+        return importCsv(reader, new ImportProgress(), newCheckpoint());
+    }
+
+    public ImportResult importCsv(Reader reader, ImportProgress progress, ImportCheckpoint checkpoint) {
+        return importCsv(reader, progress, checkpoint, ImportMode.INSERT);
+    }
+
+    public ImportResult importCsv(Reader reader, ImportProgress progress, ImportCheckpoint checkpoint, ImportMode mode) {
+        return importRecords(() -> new OpenCsvRecordReader(reader), progress, checkpoint, mode, false);
+    }
+
+    public ImportResult dryRun(MultipartFile file) throws IOException {
+        return dryRun(file, ImportMode.INSERT);
+    }
+
+    /**
+     * Validates and dedupes the file against the current data without writing anything.
+     */
+    public ImportResult dryRun(MultipartFile file, ImportMode mode) throws IOException {
+        return dryRun(file.getInputStream(), file.getContentType(), mode);
+    }
+
+    /**
+     * @param encoding the Content-Encoding or Content-Type hint of {@code body}
+     */
+    public ImportResult dryRun(InputStream body, String encoding, ImportMode mode) throws IOException {
+        InputStream in = CompressionUtils.decompress(body, encoding);
+        try (Reader reader = new BufferedReader(new InputStreamReader(in))) {
+            return importRecords(() -> new OpenCsvRecordReader(reader), new ImportProgress(), newCheckpoint(), mode, true);
+        }
+    }
+
+    public ImportResult importFile(String name) throws IOException {
+        return importFile(name, false, ImportMode.INSERT);
+    }
+
+    public ImportResult importFile(String name, boolean force, ImportMode mode) throws IOException {
+        return importFile(resolveFile(name), force, mode);
+    }
+
+    public ImportResult importFile(Path file, boolean force, ImportMode mode) throws IOException {
+        return importFile(file, force, mode, file.getFileName().toString());
+    }
+
+    private ImportResult importFile(Path file, boolean force, ImportMode mode, String fileName) throws IOException {
+        String hash = importHistoryService.hash(file);
+        Optional<ImportResult> previous = importHistoryService.findPrevious(hash, force, mode);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+        return importHistoryService.record(hash, fileName,
+                importFile(file, new ImportProgress(), newCheckpoint(), mode));
+    }
 
-            List<CsvRecord> records;
-            try {
-                records = csv.parse();
-            } catch (RuntimeException e) {
-                errors.add(new ImportError(
-                        -1,
-                        ErrorType.GENERIC_ERROR,
-                        null,
-                        null,
-                        "Critical error during CSV parsing: " + e.getMessage()
-                ));
-                return new ImportResult(0, errors);
+    public ImportResult importFile(Path file, ImportProgress progress, ImportCheckpoint checkpoint,
+                                   ImportMode mode) throws IOException {
+        if (isCompressed(file)) {
+            // compressed bytes cannot be split in place, so these go through the streaming decoder
+            try (InputStream in = CompressionUtils.decompress(Files.newInputStream(file), null)) {
+                return importCsv(in, progress, checkpoint, mode);
             }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importRecords(() -> new MappedCsvRecordReader(channel, importProperties.getMapWindowSize()),
+                    progress, checkpoint, mode, false);
+        }
+    }
 
+    /**
+     * A checkpoint for a synchronous import: its errors are counted and sampled but not spilled to a file, as
+     * only async jobs have an id to fetch the full list with.
+     */
+    public ImportCheckpoint newCheckpoint() {
+        return new ImportCheckpoint(new ImportErrorLog(importProperties.getErrorSampleSize(), null));
+    }
 
-            int currentLine = 1;
-            for (CsvRecord rec : records) {
-                currentLine++;
-                boolean recordHasError = false;
-
-                String viewsRaw = rec.getViews();
-                int views = 0;
-
-                if (viewsRaw == null || viewsRaw.trim().isEmpty()) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.MISSING_FIELD, "views", viewsRaw,
-                            "Field 'views' cannot be empty."
-                    ));
-                    recordHasError = true;
-                } else if (!viewsRaw.matches("^\\d+$")) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.NUMBER_PARSE_ERROR, "views", viewsRaw,
-                            String.format("Invalid format for 'views': '%s'. Only digits are allowed.", viewsRaw)
-                    ));
-                    recordHasError = true;
-                } else {
-                    try {
-                        views = Integer.parseInt(viewsRaw);
-                    } catch (NumberFormatException nfe) {
-                        errors.add(new ImportError(
-                                currentLine, ErrorType.NUMBER_PARSE_ERROR, "views", viewsRaw,
-                                String.format("Value '%s' for 'views' is too large for an integer or cannot be parsed.", viewsRaw)
-                        ));
-                        recordHasError = true;
-                    }
+    public Path resolveFile(String name) {
+        if (!StringUtils.hasText(importProperties.getDirectory())) {
+            throw new ResourceNotFoundException("Server-side imports are not configured");
+        }
+        try {
+            // real paths, so a symbolic link inside the directory cannot lead out of it
+            Path directory = Path.of(importProperties.getDirectory()).toRealPath();
+            Path file = directory.resolve(name).normalize();
+            if (file.startsWith(directory)) {
+                Path real = file.toRealPath();
+                if (real.startsWith(directory) && Files.isRegularFile(real)) {
+                    return real;
                 }
+            }
+        } catch (IOException e) {
+            // a missing directory or file is reported like any other file that cannot be imported
+        }
+        throw new ResourceNotFoundException("Import file not found: " + name);
+    }
 
-                String likesRaw = rec.getLikes();
-                int likes = 0;
-
-                if (likesRaw == null || likesRaw.trim().isEmpty()) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.MISSING_FIELD, "likes", likesRaw,
-                            "Field 'likes' cannot be empty."
-                    ));
-                    recordHasError = true;
-                } else if (!likesRaw.matches("^\\d+$")) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.NUMBER_PARSE_ERROR, "likes", likesRaw,
-                            String.format("Invalid format for 'likes': '%s'. Only digits are allowed.", likesRaw)
-                    ));
-                    recordHasError = true;
-                } else {
-                    try {
-                        likes = Integer.parseInt(likesRaw);
-                    } catch (NumberFormatException nfe) {
-                        errors.add(new ImportError(
-                                currentLine, ErrorType.NUMBER_PARSE_ERROR, "likes", likesRaw,
-                                String.format("Value '%s' for 'likes' is too large for an integer or cannot be parsed.", likesRaw)
-                        ));
-                        recordHasError = true;
-                    }
-                }
+    private boolean isCompressed(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return CompressionUtils.sniff(in) != CompressionUtils.Compression.NONE;
+        }
+    }
 
-                String dateRaw = rec.getDate();
-                if (dateRaw == null || dateRaw.trim().isEmpty()) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.MISSING_FIELD, "date", dateRaw,
-                            "Field 'date' cannot be empty."
-                    ));
-                    recordHasError = true;
-                } else {
-                    try {
-                        YearMonth.parse(dateRaw, DATE_FORMATTER);
-                    } catch (Exception dpe) {
-                        errors.add(new ImportError(
-                                currentLine, ErrorType.DATE_PARSE_ERROR, "date", dateRaw,
-                                String.format("Cannot parse '%s' as 'MMMM yyyy'.", dateRaw)
-                        ));
-                        recordHasError = true;
-                    }
-                }
+    private ImportResult importRecords(Supplier<CsvRecordReader> source, ImportProgress progress,
+                                       ImportCheckpoint checkpoint, ImportMode mode, boolean dryRun) {
+        ImportSession session = new ImportSession(importProperties.getCommitSize(), progress, checkpoint, mode, dryRun);
+        int resumeAfter = checkpoint.getLine();
 
-                if (rec.getAuthor() == null || rec.getAuthor().trim().isEmpty()) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.MISSING_FIELD, "author", rec.getAuthor(),
-                            "Field 'author' cannot be empty."
-                    ));
-                    recordHasError = true;
+        importPipeline.run(source, chunk -> {
+            int firstLine = session.advanceRecords(chunk.getRecordCount());
+            int lastLine = firstLine + chunk.getRecordCount() - 1;
+            for (ImportRow row : chunk.getRows()) {
+                if (row.getDate() != null) {
+                    session.addYear(row.getDate().getYear());
                 }
-                if (rec.getTitle() == null || rec.getTitle().trim().isEmpty()) {
-                    errors.add(new ImportError(
-                            currentLine, ErrorType.MISSING_FIELD, "title", rec.getTitle(),
-                            "Field 'title' cannot be empty."
-                    ));
-                    recordHasError = true;
+            }
+            if (lastLine <= resumeAfter) {
+                return;
+            }
+            int fresh = Math.min(chunk.getRecordCount(), lastLine - resumeAfter);
+            int valid = 0;
+            for (ImportError error : chunk.getErrors()) {
+                if (error.getLine() > resumeAfter || error.getLine() < 0) {
+                    session.addPendingError(error);
                 }
-
-                if (recordHasError) {
+            }
+            for (ImportRow row : chunk.getRows()) {
+                if (row.getLine() <= resumeAfter) {
+                    continue;
+                }
+                valid++;
+                if (isStored(session, row)) {
                     continue;
                 }
+                session.getBatch().add(row);
+                if (session.getBatch().size() >= importProperties.getCommitSize()) {
+                    commit(session);
+                }
+            }
+            if (session.hasTooManyPendingErrors(importProperties.getCommitSize())) {
+                commit(session);
+            }
+            progress.addRead(fresh);
+            progress.addFailed(fresh - valid);
+            // lines before the first uncommitted row are settled, so their errors can leave memory
+            List<ImportRow> batch = session.getBatch();
+            session.checkpoint(batch.isEmpty() ? lastLine : batch.get(0).getLine() - 1);
+        });
+        commit(session);
+
+        return session.toResult();
+    }
 
+    /**
+     * Rows whose talk is already stored need no speaker or talk write; they are only counted
+     * as unchanged or, when their views/likes differ, as changed. Upserts still write changed rows.
+     */
+    private boolean isStored(ImportSession session, ImportRow row) {
+        Long speakerId = speakerIds(session).get(row.getRecord().getAuthor());
+        if (speakerId == null) {
+            return false;
+        }
+        LongLongHashMap known = talkFingerprints(session);
+        long fingerprint = TalkFingerprint.of(row.getRecord().getTitle(), speakerId, row.getDate());
+        if (!known.containsKey(fingerprint)) {
+            return false;
+        }
+        boolean changed = known.get(fingerprint, 0L) != content(row);
+        if (changed && session.getMode() == ImportMode.UPSERT) {
+            return false;
+        }
+        session.skip(row.getLine(), changed);
+        return true;
+    }
+
+    private void commit(ImportSession session) {
+        List<ImportRow> batch = session.getBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+        LongLongHashMap known = talkFingerprints(session);
+        Map<String, Long> speakerIds = speakerIds(session);
+        int lastLine = batch.get(batch.size() - 1).getLine();
+        if (session.isDryRun()) {
+            simulate(batch, speakerIds, known, session.getMode(), session.getProgress());
+            session.addImported(batch.size());
+            session.checkpoint(lastLine);
+            batch.clear();
+            return;
+        }
+        try {
+            // nothing reaches the session caches until the transaction has committed
+            Map<String, Long> created = new HashMap<>();
+            int[] written = new int[batch.size()];
+            int writtenCount = transactionOperations.execute(
+                    status -> write(batch, speakerIds, created, known, session.getMode(), written));
+            speakerIds.putAll(created);
+            int updated = 0;
+            for (int i = 0; i < writtenCount; i++) {
+                ImportRow row = batch.get(written[i]);
+                long fingerprint = fingerprint(row);
+                if (known.containsKey(fingerprint)) {
+                    updated++;
+                }
+                known.put(fingerprint, content(row));
+            }
+            session.getProgress().addSpeakersCreated(created.size());
+            session.getProgress().addTalksCreated(writtenCount - updated);
+            session.getProgress().addTalksUpdated(updated);
+            session.addImported(batch.size());
+            session.checkpoint(lastLine);
+        } catch (Exception batchFailure) {
+            // the chunk was rolled back as a whole; replay it row by row to pin the error to its line
+            session.commitErrorsUpTo(lastLine);
+            for (ImportRow row : batch) {
                 try {
-                    var speaker = speakerService.findOrCreate(rec.getAuthor());
-                    talkService.saveIfNotExists(rec, speaker.getId(), views, likes);
-                    successCount++;
+                    Long speakerId = speakerIds.get(row.getRecord().getAuthor());
+                    if (speakerId == null) {
+                        speakerId = speakerService.findOrCreate(row.getRecord().getAuthor()).getId();
+                        speakerIds.put(row.getRecord().getAuthor(), speakerId);
+                        session.getProgress().addSpeakersCreated(1);
+                    }
+                    row.setSpeakerId(speakerId);
+                    if (session.getMode() == ImportMode.UPSERT) {
+                        upsert(row, known, session.getProgress());
+                    } else {
+                        if (talkService.saveIfNotExists(row.getRecord(), row.getDate(), speakerId, row.getViews(), row.getLikes())) {
+                            session.getProgress().addTalksCreated(1);
+                        }
+                        remember(known, row);
+                    }
+                    session.addImported(1);
                 } catch (Exception e) {
-                    errors.add(new ImportError(
-                            currentLine,
-                            ErrorType.GENERIC_ERROR,
-                            null,
-                            null,
-                            String.format("Error saving record for title '%s': %s", rec.getTitle(), e.getMessage())
-                    ));
+                    session.addError(saveError(row, e));
+                    session.getProgress().addFailed(1);
                 }
             }
+            session.checkpoint(lastLine);
+        }
+        batch.clear();
+    }
+
+    private void upsert(ImportRow row, LongLongHashMap known, ImportProgress progress) {
+        long fingerprint = fingerprint(row);
+        boolean stored = known.containsKey(fingerprint);
+        if (stored && known.get(fingerprint, 0L) == content(row)) {
+            return;
+        }
+        talkService.upsertAll(List.of(toTalk(row)));
+        if (stored) {
+            progress.addTalksUpdated(1);
+        } else {
+            progress.addTalksCreated(1);
+        }
+        known.put(fingerprint, content(row));
+    }
+
+    private void simulate(List<ImportRow> rows, Map<String, Long> speakerIds, LongLongHashMap known, ImportMode mode,
+                          ImportProgress progress) {
+        for (ImportRow row : rows) {
+            Long speakerId = speakerIds.get(row.getRecord().getAuthor());
+            if (speakerId == null) {
+                // stand-in id for a speaker that would be created; negative so it never matches a real one
+                progress.addSpeakersCreated(1);
+                speakerId = -progress.getSpeakersCreated();
+                speakerIds.put(row.getRecord().getAuthor(), speakerId);
+            }
+            row.setSpeakerId(speakerId);
+            long fingerprint = fingerprint(row);
+            if (!known.containsKey(fingerprint)) {
+                progress.addTalksCreated(1);
+                known.put(fingerprint, content(row));
+            } else if (mode == ImportMode.UPSERT && known.get(fingerprint, 0L) != content(row)) {
+                progress.addTalksUpdated(1);
+                known.put(fingerprint, content(row));
+            }
         }
+    }
+
+    private int write(List<ImportRow> rows, Map<String, Long> speakerIds, Map<String, Long> created,
+                      LongLongHashMap known, ImportMode mode, int[] written) {
+        resolveSpeakers(rows, speakerIds, created);
+
+        int batchSize = importProperties.getBatchSize();
+        List<Talk> talks = new ArrayList<>(Math.min(batchSize, rows.size()));
+        List<Talk> updates = new ArrayList<>();
+        LongHashSet pending = new LongHashSet(rows.size());
+        int writtenCount = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            long fingerprint = fingerprint(row);
+            if (!pending.add(fingerprint)) {
+                continue;
+            }
+            if (!known.containsKey(fingerprint)) {
+                written[writtenCount++] = i;
+                talks.add(toTalk(row));
+                if (talks.size() >= batchSize) {
+                    talkService.createAll(talks);
+                    talks = new ArrayList<>(batchSize);
+                }
+            } else if (mode == ImportMode.UPSERT && known.get(fingerprint, 0L) != content(row)) {
+                written[writtenCount++] = i;
+                updates.add(toTalk(row));
+                if (updates.size() >= batchSize) {
+                    talkService.upsertAll(updates);
+                    updates = new ArrayList<>();
+                }
+            }
+        }
+        if (!talks.isEmpty()) {
+            talkService.createAll(talks);
+        }
+        if (!updates.isEmpty()) {
+            talkService.upsertAll(updates);
+        }
+        return writtenCount;
+    }
+
+    private LongLongHashMap talkFingerprints(ImportSession session) {
+        if (session.getTalkFingerprints() == null) {
+            session.setTalkFingerprints(talkService.findAllFingerprints());
+        }
+        return session.getTalkFingerprints();
+    }
+
+    private long fingerprint(ImportRow row) {
+        return TalkFingerprint.of(row.getRecord().getTitle(), row.getSpeakerId(), row.getDate());
+    }
+
+    private long content(ImportRow row) {
+        return TalkFingerprint.content(row.getViews(), row.getLikes());
+    }
+
+    private void remember(LongLongHashMap known, ImportRow row) {
+        long fingerprint = fingerprint(row);
+        if (!known.containsKey(fingerprint)) {
+            known.put(fingerprint, content(row));
+        }
+    }
+
+    private Map<String, Long> speakerIds(ImportSession session) {
+        if (session.getSpeakerIds() == null) {
+            session.setSpeakerIds(speakerService.findAllIdsByName());
+        }
+        return session.getSpeakerIds();
+    }
+
+    private void resolveSpeakers(List<ImportRow> batch, Map<String, Long> speakerIds, Map<String, Long> created) {
+        Set<String> unknown = new LinkedHashSet<>();
+        for (ImportRow row : batch) {
+            if (!speakerIds.containsKey(row.getRecord().getAuthor())) {
+                unknown.add(row.getRecord().getAuthor());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            created.putAll(speakerService.createAll(unknown));
+        }
+        for (ImportRow row : batch) {
+            String author = row.getRecord().getAuthor();
+            Long speakerId = speakerIds.getOrDefault(author, created.get(author));
+            Assert.notNull(speakerId, "Speaker ID could not be resolved for: " + row.getRecord().getAuthor());
+            row.setSpeakerId(speakerId);
+        }
+    }
+
+    private Talk toTalk(ImportRow row) {
+        return Talk.builder()
+                .title(row.getRecord().getTitle())
+                .date(row.getDate())
+                .views(row.getViews())
+                .likes(row.getLikes())
+                .link(row.getRecord().getLink())
+                .speakerId(row.getSpeakerId())
+                .build();
+    }
 
-        return new ImportResult(successCount, errors);
+    private ImportError saveError(ImportRow row, Exception e) {
+        return new ImportError(
+                row.getLine(),
+                ErrorType.GENERIC_ERROR,
+                null,
+                null,
+                String.format("Error saving record for title '%s': %s", row.getRecord().getTitle(), e.getMessage())
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.common.utils.LongLongHashMap;
+import com.narciso.tedtalks.imports.domain.ImportCheckpoint;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportProgress;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.domain.ImportRow;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+class ImportSession {
+    // validation errors wait here until the rows around them are committed
+    private final Deque<ImportError> pendingErrors = new ArrayDeque<>();
+    private final List<ImportRow> batch;
+    @Setter
+    private Map<String, Long> speakerIds;
+    @Setter
+    private LongLongHashMap talkFingerprints;
+    private final ImportProgress progress;
+    private final ImportCheckpoint checkpoint;
+    private final ImportMode mode;
+    private final boolean dryRun;
+    private int recordsSeen;
+    private boolean aborted;
+    // rows that needed no write, counted once every line up to the last of them is settled
+    private long unsettledUnchanged;
+    private long unsettledChanged;
+    private int lastSkippedLine;
+    private int firstYear = Integer.MAX_VALUE;
+    private int lastYear = Integer.MIN_VALUE;
+
+    ImportSession(int commitSize, ImportProgress progress, ImportCheckpoint checkpoint, ImportMode mode, boolean dryRun) {
+        this.batch = new ArrayList<>(commitSize);
+        this.progress = progress;
+        this.checkpoint = checkpoint;
+        this.mode = mode;
+        this.dryRun = dryRun;
+        if (checkpoint.isStarted()) {
+            long read = checkpoint.getLine() - 1L;
+            progress.restore(read, checkpoint.getRowsImported(), read - checkpoint.getRowsImported());
+        }
+    }
+
+    int advanceRecords(int count) {
+        int firstLine = recordsSeen + 2;
+        recordsSeen += count;
+        return firstLine;
+    }
+
+    void addPendingError(ImportError error) {
+        if (error.getLine() < 0) {
+            aborted = true;
+        }
+        pendingErrors.add(error);
+    }
+
+    // every valid row counts, including those a resumed import already committed
+    void addYear(int year) {
+        firstYear = Math.min(firstYear, year);
+        lastYear = Math.max(lastYear, year);
+    }
+
+    void skip(int line, boolean changed) {
+        if (changed) {
+            unsettledChanged++;
+        } else {
+            unsettledUnchanged++;
+        }
+        lastSkippedLine = line;
+    }
+
+    void addError(ImportError error) {
+        checkpoint.getErrors().add(error);
+    }
+
+    boolean hasTooManyPendingErrors(int limit) {
+        return pendingErrors.size() >= limit;
+    }
+
+    void addImported(int count) {
+        progress.addImported(count);
+    }
+
+    void commitErrorsUpTo(int line) {
+        while (!pendingErrors.isEmpty() && pendingErrors.peek().getLine() <= line) {
+            addError(pendingErrors.poll());
+        }
+    }
+
+    void checkpoint(int line) {
+        if (line >= lastSkippedLine) {
+            settleSkipped();
+        }
+        if (line <= checkpoint.getLine()) {
+            return;
+        }
+        commitErrorsUpTo(line);
+        checkpoint.advance(line, progress.getRowsImported());
+    }
+
+    ImportResult toResult() {
+        settleSkipped();
+        commitErrorsUpTo(Integer.MAX_VALUE);
+        checkpoint.getErrors().flush();
+        ImportResult result = checkpoint.getErrors().toResult(Math.toIntExact(progress.getRowsImported()));
+        result.setNewTalks(progress.getTalksCreated());
+        result.setNewSpeakers(progress.getSpeakersCreated());
+        result.setUpdatedTalks(progress.getTalksUpdated());
+        result.setUnchangedRows(progress.getRowsUnchanged());
+        result.setChangedRows(progress.getRowsChanged());
+        result.setMode(mode);
+        result.setDryRun(dryRun);
+        result.setAborted(aborted);
+        if (firstYear <= lastYear) {
+            result.setFirstYear(firstYear);
+            result.setLastYear(lastYear);
+        }
+        return result;
+    }
+
+    private void settleSkipped() {
+        progress.addImported(unsettledUnchanged + unsettledChanged);
+        progress.addUnchanged(unsettledUnchanged);
+        progress.addChanged(unsettledChanged);
+        unsettledUnchanged = 0;
+        unsettledChanged = 0;
+    }
+}
@@ -0,0 +1,183 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports every CSV file that appears in {@code tedtalks.import.watch-directory}, then moves it to
+ * {@code processed/} or {@code failed/} next to a {@code .result.json} sidecar holding its {@link ImportResult}.
+ * Files should be written elsewhere and moved in, so they are complete when they show up. When all workers
+ * are busy and the queue is full the watcher blocks, and a directory rescan picks up whatever arrived meanwhile.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "tedtalks.import", name = "watch-directory")
+public class ImportWatchService {
+    static final String PROCESSED = "processed";
+    static final String FAILED = "failed";
+    static final String SIDECAR_SUFFIX = ".result.json";
+
+    private final ImportService importService;
+    private final ImportProperties importProperties;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final ThreadPoolExecutor workers;
+    // files queued or being imported, so a rescan does not queue them twice
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+    private Thread watcher;
+
+    public ImportWatchService(ImportService importService, ImportProperties importProperties, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.importProperties = importProperties;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(importProperties.getWatchDirectory()).toAbsolutePath().normalize();
+        this.workers = new ThreadPoolExecutor(
+                importProperties.getWatchWorkers(),
+                importProperties.getWatchWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(importProperties.getWatchQueueCapacity()),
+                new CustomizableThreadFactory("import-watch-worker-"),
+                (task, executor) -> {
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for an import worker", e);
+                    }
+                });
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory.resolve(PROCESSED));
+        Files.createDirectories(directory.resolve(FAILED));
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+        watcher = new Thread(this::watch, "import-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for CSV imports", directory);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        workers.shutdownNow();
+    }
+
+    private void watch() {
+        // files dropped while the application was down
+        rescan();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan();
+                    } else {
+                        submit(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Import watch directory {} is no longer accessible", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    private void rescan() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                submit(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not list import watch directory {}", directory, e);
+        }
+    }
+
+    private void submit(Path file) {
+        if (!isImportable(file) || !inFlight.add(file)) {
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                process(file);
+            } finally {
+                inFlight.remove(file);
+            }
+        });
+    }
+
+    private void process(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        ImportResult result;
+        String target;
+        try {
+            result = importService.importFile(file, false, importProperties.getWatchMode());
+            target = result.isAborted() ? FAILED : PROCESSED;
+        } catch (Exception e) {
+            log.error("Import of watched file {} failed", file, e);
+            result = new ImportResult(0, List.of(new ImportError(-1, ErrorType.GENERIC_ERROR, null, null,
+                    "Critical error processing CSV file: " + e.getMessage())));
+            result.setAborted(true);
+            target = FAILED;
+        }
+        try {
+            // the sidecar is complete before it appears, and it is in place by the time the file shows up next to it
+            Path destination = directory.resolve(target).resolve(file.getFileName());
+            Path sidecar = destination.resolveSibling(destination.getFileName() + SIDECAR_SUFFIX);
+            Path partial = sidecar.resolveSibling("." + sidecar.getFileName() + ".tmp");
+            objectMapper.writeValue(partial.toFile(), result);
+            Files.move(partial, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(file, destination, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Could not move watched file {} to {}", file, target, e);
+        }
+    }
+
+    private boolean isImportable(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return !name.startsWith(".")
+                && (name.endsWith(".csv") || name.endsWith(".csv.gz") || name.endsWith(".csv.zst"))
+                && Files.isRegularFile(file);
+    }
+}
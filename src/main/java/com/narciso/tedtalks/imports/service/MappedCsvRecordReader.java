@@ -0,0 +1,215 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads UTF-8 CSV records straight from a memory-mapped file, one window of the file at a time.
+ * Records are split on the raw bytes (quoted fields may contain commas, newlines and doubled quotes)
+ * and bound to {@link CsvRecord} by header name, rejecting the same records with the same messages
+ * as the OpenCSV binding used for uploads.
+ */
+class MappedCsvRecordReader implements CsvRecordReader {
+    private static final String[] COLUMNS = {"title", "author", "date", "views", "likes", "link"};
+    private static final String LENGTH_MISMATCH = "Number of data fields does not match number of headers.";
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private final List<String> fields = new ArrayList<>(COLUMNS.length);
+    private byte[] field = new byte[256];
+    private int fieldLength;
+    private int physicalLine;
+
+    private final int[] columnIndex = new int[COLUMNS.length];
+    private int headerSize;
+    private final List<ImportError> rejected = new ArrayList<>();
+    private CsvRecord lookahead;
+    private boolean exhausted;
+
+    MappedCsvRecordReader(FileChannel channel, int windowSize) {
+        try {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowSize = windowSize;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        readHeader();
+    }
+
+    @Override
+    public int drainRejected(List<ImportError> errors) {
+        fill();
+        int drained = rejected.size();
+        errors.addAll(rejected);
+        rejected.clear();
+        return drained;
+    }
+
+    @Override
+    public CsvRecord next() {
+        fill();
+        CsvRecord rec = lookahead;
+        lookahead = null;
+        return rec;
+    }
+
+    private void readHeader() {
+        if (!readFields()) {
+            throw new IllegalStateException("CSV file is empty");
+        }
+        headerSize = fields.size();
+        Arrays.fill(columnIndex, -1);
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equalsIgnoreCase(name) && columnIndex[c] < 0) {
+                    columnIndex[c] = i;
+                }
+            }
+        }
+        List<String> missing = new ArrayList<>();
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (columnIndex[c] < 0) {
+                missing.add(COLUMNS[c].toUpperCase(Locale.ROOT));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Header is missing required fields " + missing);
+        }
+    }
+
+    // reads ahead to the next well-formed record, collecting the rejected ones on the way
+    private void fill() {
+        while (lookahead == null && !exhausted) {
+            if (!readFields()) {
+                exhausted = true;
+            } else if (fields.size() != headerSize) {
+                reject(LENGTH_MISMATCH);
+            } else {
+                bind();
+            }
+        }
+    }
+
+    private void bind() {
+        String[] values = new String[COLUMNS.length];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            values[c] = fields.get(columnIndex[c]);
+            if (values[c].isBlank()) {
+                reject("Field '" + COLUMNS[c] + "' is mandatory but no value was provided.");
+                return;
+            }
+        }
+        lookahead = new CsvRecord(values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    private void reject(String message) {
+        rejected.add(new ImportError(physicalLine, ErrorType.MISSING_FIELD, null, null, message));
+    }
+
+    /**
+     * Splits the next record into {@link #fields}.
+     *
+     * @return {@code false} once the end of the file is reached without any record bytes
+     */
+    private boolean readFields() {
+        fields.clear();
+        fieldLength = 0;
+        boolean started = false;
+        boolean quoted = false;
+        boolean quoteSeen = false;
+        boolean blankSoFar = true;
+        int b;
+        while ((b = nextByte()) >= 0) {
+            started = true;
+            if (quoted) {
+                if (b == '"') {
+                    quoted = false;
+                    quoteSeen = true;
+                } else {
+                    if (b == '\n') {
+                        physicalLine++;
+                    }
+                    append(b);
+                }
+                continue;
+            }
+            if (b == ',') {
+                endField();
+                quoteSeen = false;
+                blankSoFar = true;
+            } else if (b == '\n') {
+                physicalLine++;
+                endField();
+                return true;
+            } else if (b == '\r') {
+                // dropped outside quotes so CRLF files read like LF files
+            } else if (b == '"' && quoteSeen) {
+                // a doubled quote inside a quoted field
+                append('"');
+                quoted = true;
+            } else if (b == '"' && blankSoFar) {
+                fieldLength = 0;
+                quoted = true;
+                blankSoFar = false;
+            } else {
+                append(b);
+                blankSoFar &= b <= ' ';
+                quoteSeen = false;
+            }
+        }
+        if (!started) {
+            return false;
+        }
+        physicalLine++;
+        endField();
+        return true;
+    }
+
+    private void append(int b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = (byte) b;
+    }
+
+    private void endField() {
+        fields.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+        fieldLength = 0;
+    }
+
+    private int nextByte() {
+        if (window == null || !window.hasRemaining()) {
+            long next = window == null ? 0 : windowStart + window.capacity();
+            if (next >= size) {
+                return -1;
+            }
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowSize, size - next));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            windowStart = next;
+        }
+        return window.get() & 0xFF;
+    }
+}
@@ -0,0 +1,53 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
+
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+
+class OpenCsvRecordReader implements CsvRecordReader {
+    private final CsvToBean<CsvRecord> csv;
+    private final Iterator<CsvRecord> records;
+
+    OpenCsvRecordReader(Reader source) {
+        this.csv = new CsvToBeanBuilder<CsvRecord>(source)
+                .withType(CsvRecord.class)
+                .withIgnoreLeadingWhiteSpace(true)
+                .withThrowExceptions(false)
+                .build();
+        this.records = csv.iterator();
+    }
+
+    @Override
+    public int drainRejected(List<ImportError> errors) {
+        List<CsvException> captured = csv.getCapturedExceptions();
+        int drained = captured.size();
+        for (CsvException ex : captured) {
+            int line = Math.toIntExact(ex.getLineNumber());
+            ErrorType type = ex instanceof CsvRequiredFieldEmptyException
+                    ? ErrorType.MISSING_FIELD
+                    : ErrorType.COLUMN_MISMATCH;
+            errors.add(new ImportError(
+                    line,
+                    type,
+                    null,
+                    null,
+                    ex.getMessage()
+            ));
+        }
+        captured.clear();
+        return drained;
+    }
+
+    @Override
+    public CsvRecord next() {
+        return records.hasNext() ? records.next() : null;
+    }
+}
@@ -1,9 +1,17 @@
 package com.narciso.tedtalks.speakers.controller;
 
+import com.narciso.tedtalks.common.exception.InvalidInfluenceRequestException;
+import com.narciso.tedtalks.common.utils.SortUtils;
 import com.narciso.tedtalks.speakers.domain.MostInfluentialSpeaker;
+import com.narciso.tedtalks.speakers.dto.InfluenceCacheStatsDto;
+import com.narciso.tedtalks.speakers.dto.RankedSpeakerInfluenceDto;
 import com.narciso.tedtalks.speakers.dto.SpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.service.InfluenceRankingService;
 import com.narciso.tedtalks.speakers.service.InfluenceService;
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategyRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -11,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -18,12 +27,17 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class InfluenceController {
     private final InfluenceService influenceService;
+    private final InfluenceRankingService influenceRankingService;
+    private final InfluenceStrategyRegistry strategyRegistry;
 
     @GetMapping("/most-influential")
     public ResponseEntity<MostInfluentialSpeaker> getMostInfluential(
-            @RequestParam("year") int year) {
+            @RequestParam("year") int year,
+            @RequestParam(name = "strategy", required = false) String strategy,
+            @RequestParam(name = "viewWeight", required = false) Double viewWeight,
+            @RequestParam(name = "likeWeight", required = false) Double likeWeight) {
         Optional<MostInfluentialSpeaker> result =
-                influenceService.findMostInfluentialSpeaker(year);
+                influenceRankingService.findMostInfluentialSpeaker(year, strategyRegistry.resolve(strategy, viewWeight, likeWeight));
         return result
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.noContent().build());
@@ -31,12 +45,86 @@ public class InfluenceController {
 
     @GetMapping
     public ResponseEntity<List<SpeakerInfluenceDto>> analyze(
-            @RequestParam(name = "year", required = false) Integer year
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "strategy", required = false) String strategy,
+            @RequestParam(name = "viewWeight", required = false) Double viewWeight,
+            @RequestParam(name = "likeWeight", required = false) Double likeWeight
     ) {
-        List<SpeakerInfluenceDto> result = influenceService.analyzeInfluence(Optional.ofNullable(year));
+        List<SpeakerInfluenceDto> result = influenceRankingService.analyzeInfluence(Optional.ofNullable(year),
+                strategyRegistry.resolve(strategy, viewWeight, likeWeight));
         if (result.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(result);
     }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<SpeakerInfluenceDto>> top(
+            @RequestParam(name = "k", defaultValue = "10") int k,
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "strategy", required = false) String strategy,
+            @RequestParam(name = "viewWeight", required = false) Double viewWeight,
+            @RequestParam(name = "likeWeight", required = false) Double likeWeight
+    ) {
+        checkK(k);
+        List<SpeakerInfluenceDto> result = influenceService.topK(Optional.ofNullable(year), k,
+                strategyRegistry.resolve(strategy, viewWeight, likeWeight));
+        if (result.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/ranking")
+    public Page<RankedSpeakerInfluenceDto> ranking(
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(defaultValue = "rank,asc") String[] sort,
+            @RequestParam(name = "strategy", required = false) String strategy,
+            @RequestParam(name = "viewWeight", required = false) Double viewWeight,
+            @RequestParam(name = "likeWeight", required = false) Double likeWeight
+    ) {
+        checkPage(page, size);
+        return influenceRankingService.rank(Optional.ofNullable(year), PageRequest.of(page, size, SortUtils.createSort(sort)),
+                strategyRegistry.resolve(strategy, viewWeight, likeWeight));
+    }
+
+    /**
+     * The top {@code k} speakers under each strategy, e.g. {@code ?strategy=composite&strategy=weighted:0.5:0.5};
+     * every registered strategy when none is given.
+     */
+    @GetMapping("/compare")
+    public Map<String, List<SpeakerInfluenceDto>> compare(
+            @RequestParam(name = "k", defaultValue = "10") int k,
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "strategy", required = false) List<String> strategies
+    ) {
+        checkK(k);
+        List<String> specs = strategies == null || strategies.isEmpty()
+                ? List.copyOf(strategyRegistry.names())
+                : strategies;
+        return influenceService.compare(Optional.ofNullable(year), k,
+                specs.stream().map(strategyRegistry::resolve).toList());
+    }
+
+    @GetMapping("/cache")
+    public InfluenceCacheStatsDto cacheStats() {
+        return influenceRankingService.cacheStats();
+    }
+
+    private static void checkK(int k) {
+        if (k <= 0) {
+            throw new InvalidInfluenceRequestException("k must be positive, got " + k);
+        }
+    }
+
+    private static void checkPage(int page, int size) {
+        if (page < 0) {
+            throw new InvalidInfluenceRequestException("page must not be negative, got " + page);
+        }
+        if (size <= 0) {
+            throw new InvalidInfluenceRequestException("size must be positive, got " + size);
+        }
+    }
 }
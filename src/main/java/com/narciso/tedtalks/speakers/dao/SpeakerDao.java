@@ -5,10 +5,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +41,34 @@ public class SpeakerDao {
         return speaker;
     }
 
+    public Map<String, Long> saveAll(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        List<String> ordered = new ArrayList<>(names);
+        SqlParameterSource[] batch = ordered.stream()
+                .map(name -> new MapSqlParameterSource().addValue("name", name))
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.batchUpdate("INSERT INTO speakers (name) VALUES (:name)", batch, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < ordered.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            ids.put(ordered.get(i), id.longValue());
+        }
+        return ids;
+    }
+
+    public Map<String, Long> findAllIdsByName() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("SELECT id, name FROM speakers", new MapSqlParameterSource(),
+                (RowCallbackHandler) rs -> ids.put(rs.getString("name"), rs.getLong("id")));
+        return ids;
+    }
+
     public Optional<Speaker> findByName(String name) {
         String sql = "SELECT * FROM speakers WHERE name = :name";
         var params = new MapSqlParameterSource().addValue("name", name);
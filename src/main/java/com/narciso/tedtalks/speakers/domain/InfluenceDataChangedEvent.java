@@ -0,0 +1,53 @@
+package com.narciso.tedtalks.speakers.domain;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Published when talk totals or speaker names change, so anything derived from
+ * {@code speaker_year_stats} can drop what it holds for the affected years. Writes that know the talks
+ * they touched also carry them as {@code removed} and {@code added} rows, so an in-memory copy of the
+ * talks can apply them instead of reading the years again; {@code speakerIds} name the speakers whose
+ * name changed or went away.
+ */
+public record InfluenceDataChangedEvent(Set<Integer> years, boolean allYears, List<TalkRow> removed,
+                                        List<TalkRow> added, Set<Long> speakerIds) {
+
+    public static InfluenceDataChangedEvent forYears(Collection<Integer> years) {
+        return new InfluenceDataChangedEvent(Set.copyOf(years), false, List.of(), List.of(), Set.of());
+    }
+
+    public static InfluenceDataChangedEvent forAllYears() {
+        return new InfluenceDataChangedEvent(Set.of(), true, List.of(), List.of(), Set.of());
+    }
+
+    /**
+     * @param removed the talks as they were before the write, if they existed
+     * @param added   the talks as the write left them, if they still exist
+     */
+    public static InfluenceDataChangedEvent forTalks(List<TalkRow> removed, List<TalkRow> added) {
+        Set<Integer> years = Stream.concat(removed.stream(), added.stream())
+                .map(TalkRow::year)
+                .collect(Collectors.toUnmodifiableSet());
+        return new InfluenceDataChangedEvent(years, false, List.copyOf(removed), List.copyOf(added), Set.of());
+    }
+
+    // results of every year carry speaker names
+    public static InfluenceDataChangedEvent forSpeakers(Collection<Long> speakerIds) {
+        return new InfluenceDataChangedEvent(Set.of(), true, List.of(), List.of(), Set.copyOf(speakerIds));
+    }
+
+    public boolean affects(int year) {
+        return allYears || years.contains(year);
+    }
+
+    public boolean hasTalks() {
+        return !removed.isEmpty() || !added.isEmpty();
+    }
+
+    public record TalkRow(long talkId, long speakerId, int year, long views, long likes) {
+    }
+}
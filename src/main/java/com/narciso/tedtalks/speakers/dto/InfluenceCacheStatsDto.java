@@ -0,0 +1,17 @@
+package com.narciso.tedtalks.speakers.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class InfluenceCacheStatsDto {
+    private long hits;
+    private long misses;
+    // entries dropped to stay within the size limit
+    private long evictions;
+    // entries dropped because talks or speakers of their year changed
+    private long invalidations;
+    private int size;
+    private int maxSize;
+}
@@ -0,0 +1,486 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.common.utils.LongLongHashMap;
+import com.narciso.tedtalks.config.InfluenceProperties;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent.TalkRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Serial;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps every talk in memory as primitive columns (talk id, speaker id, views, likes), partitioned by year
+ * and sorted by speaker within a year, and sums them per speaker with fork-join scans instead of a
+ * {@code GROUP BY} query. Years stand in for the year-month column a month filter would need; no query
+ * filters by month, so only whole years can be served.
+ * <p>
+ * Committed writes that carry their talks are queued and applied on the next read, replacing the rows of
+ * those talk ids in one pass over each year they touch; applying a change the partition already holds
+ * leaves it as it is. Upserts, whose previous rows only the database knows, mark their years stale
+ * instead, and those years are read again. The marks are cleared only once the new snapshot is published,
+ * so a read never takes the old one for current. Speaker names are kept across refreshes; only speakers
+ * that are new to the columns or were renamed are looked up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "tedtalks.influence", name = "columnar-engine", havingValue = "true")
+class ColumnarInfluenceEngine {
+    private static final String TALKS_SQL = """
+            SELECT id, speaker_id, talk_year, views, likes
+              FROM talks
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    // below this many talks a range is summed by the calling thread
+    private final int splitThreshold;
+    // every change gets the next version; a stale mark is cleared only if no later change renewed it
+    private final AtomicLong changes = new AtomicLong(1);
+    private final Map<Integer, Long> staleYears = new ConcurrentHashMap<>();
+    // version of the last change to all years, 0 when none is pending; nothing is loaded at first
+    private final AtomicLong allStale = new AtomicLong(1);
+    // committed writes that carry their talks, in the order they were reported
+    private final Queue<InfluenceDataChangedEvent> pendingTalks = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Long> staleNames = new ConcurrentHashMap<>();
+    // updated in place; a read racing a rename may show the new name with the old totals, which is harmless
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private volatile Map<Integer, TalkColumns> years = Map.of();
+
+    ColumnarInfluenceEngine(NamedParameterJdbcTemplate jdbc, InfluenceProperties influenceProperties) {
+        this.jdbc = jdbc;
+        this.splitThreshold = Math.max(1, influenceProperties.getColumnarSplitThreshold());
+    }
+
+    /**
+     * Total views and likes of every speaker with talks in {@code year}, or in any year, ordered by speaker id.
+     */
+    SpeakerTotals totals(Optional<Integer> year) {
+        Map<Integer, TalkColumns> current = current();
+        List<TalkColumns> partitions = year.isPresent()
+                ? Optional.ofNullable(current.get(year.get())).map(List::of).orElse(List.of())
+                : new ArrayList<>(current.values());
+        if (partitions.isEmpty()) {
+            return new SpeakerTotals();
+        }
+        Sums sums = ForkJoinPool.commonPool().invoke(new PartitionsTask(partitions, 0, partitions.size(), splitThreshold));
+        String[] names = new String[sums.size];
+        for (int i = 0; i < sums.size; i++) {
+            names[i] = this.names.get(sums.ids[i]);
+        }
+        return new SpeakerTotals(sums.ids, names, sums.views, sums.likes, sums.size);
+    }
+
+    // ahead of the influence cache, so results rebuilt after its invalidation already see the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInfluenceDataChanged(InfluenceDataChangedEvent event) {
+        long version = changes.incrementAndGet();
+        if (!event.speakerIds().isEmpty()) {
+            event.speakerIds().forEach(speakerId -> staleNames.put(speakerId, version));
+        } else if (event.hasTalks()) {
+            pendingTalks.add(event);
+        } else if (event.allYears()) {
+            allStale.set(version);
+        } else {
+            event.years().forEach(year -> staleYears.put(year, version));
+        }
+    }
+
+    private Map<Integer, TalkColumns> current() {
+        if (allStale.get() != 0 || !staleYears.isEmpty() || !pendingTalks.isEmpty() || !staleNames.isEmpty()) {
+            // a read arriving during a refresh waits for it here
+            refresh();
+        }
+        return years;
+    }
+
+    private synchronized void refresh() {
+        long allVersion = allStale.get();
+        boolean all = allVersion != 0;
+        Map<Integer, Long> staleVersions = Map.copyOf(staleYears);
+        Map<Long, Long> staleNameVersions = Map.copyOf(staleNames);
+        if (!all && staleVersions.isEmpty() && staleNameVersions.isEmpty() && pendingTalks.isEmpty()) {
+            // refreshed by another thread in the meantime
+            return;
+        }
+
+        long start = System.nanoTime();
+        Map<Integer, TalkColumns> partitions = new TreeMap<>(all ? Map.of() : years);
+        Set<Integer> changedYears = new HashSet<>();
+        if (all || !staleVersions.isEmpty()) {
+            changedYears.addAll(reload(all, staleVersions.keySet(), partitions));
+        }
+        // only after the reload: a change it already read is applied again to the same end
+        changedYears.addAll(applyPendingTalks(partitions));
+        if (all) {
+            reloadNames();
+        } else {
+            refreshNames(staleNameVersions.keySet(), changedYears, partitions);
+        }
+        years = Map.copyOf(partitions);
+        // changes reported during the refresh keep their newer version, and with it their mark
+        allStale.compareAndSet(allVersion, 0);
+        staleVersions.forEach(staleYears::remove);
+        staleNameVersions.forEach(staleNames::remove);
+        log.debug("Refreshed talk columns of {} in {} ms", all ? "all years" : changedYears,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads the talks of {@code staleYears}, or of every year, into {@code partitions}.
+     *
+     * @return the years read, including stale years left without talks, which are dropped
+     */
+    private Set<Integer> reload(boolean all, Set<Integer> staleYears, Map<Integer, TalkColumns> partitions) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(TALKS_SQL);
+        if (!all) {
+            sql.append(" WHERE talk_year IN (:years)");
+            params.addValue("years", staleYears);
+        }
+        sql.append(" ORDER BY talk_year, speaker_id");
+        PartitionLoader loader = new PartitionLoader();
+        jdbc.query(sql.toString(), params, loader);
+
+        Map<Integer, TalkColumns> loaded = loader.finish();
+        staleYears.forEach(partitions::remove);
+        partitions.putAll(loaded);
+        Set<Integer> reloaded = new HashSet<>(staleYears);
+        reloaded.addAll(loaded.keySet());
+        return reloaded;
+    }
+
+    /**
+     * Applies the queued talk changes, each year in one pass, to {@code partitions}.
+     *
+     * @return the years changed
+     */
+    private Set<Integer> applyPendingTalks(Map<Integer, TalkColumns> partitions) {
+        // per year, the last known row of each talk id touched, or null once it left that year
+        Map<Integer, Map<Long, TalkRow>> changes = new HashMap<>();
+        for (InfluenceDataChangedEvent event; (event = pendingTalks.poll()) != null; ) {
+            for (TalkRow row : event.removed()) {
+                changes.computeIfAbsent(row.year(), year -> new HashMap<>()).put(row.talkId(), null);
+            }
+            for (TalkRow row : event.added()) {
+                changes.computeIfAbsent(row.year(), year -> new HashMap<>()).put(row.talkId(), row);
+            }
+        }
+        changes.forEach((year, rows) -> {
+            TalkColumns columns = partitions.getOrDefault(year, TalkColumns.EMPTY).replace(rows);
+            if (columns.size() == 0) {
+                partitions.remove(year);
+            } else {
+                partitions.put(year, columns);
+            }
+        });
+        return changes.keySet();
+    }
+
+    private void reloadNames() {
+        Map<Long, String> loaded = new HashMap<>();
+        jdbc.query("SELECT id, name FROM speakers", (RowCallbackHandler) rs -> loaded.put(rs.getLong("id"), rs.getString("name")));
+        names.putAll(loaded);
+        names.keySet().retainAll(loaded.keySet());
+    }
+
+    // looks up the renamed speakers and those of the changed years that have no name yet
+    private void refreshNames(Set<Long> renamed, Set<Integer> changedYears, Map<Integer, TalkColumns> partitions) {
+        Set<Long> lookup = new HashSet<>(renamed);
+        for (Integer year : changedYears) {
+            TalkColumns columns = partitions.get(year);
+            for (int i = 0; columns != null && i < columns.size(); i++) {
+                long speakerId = columns.speakerIds[i];
+                if ((i == 0 || speakerId != columns.speakerIds[i - 1]) && !names.containsKey(speakerId)) {
+                    lookup.add(speakerId);
+                }
+            }
+        }
+        if (lookup.isEmpty()) {
+            return;
+        }
+        Map<Long, String> found = new HashMap<>();
+        jdbc.query("SELECT id, name FROM speakers WHERE id IN (:ids)", new MapSqlParameterSource("ids", lookup),
+                (RowCallbackHandler) rs -> found.put(rs.getLong("id"), rs.getString("name")));
+        names.putAll(found);
+        // speakers deleted since
+        lookup.stream().filter(speakerId -> !found.containsKey(speakerId)).forEach(names::remove);
+    }
+
+    /**
+     * The talks of one year, sorted by speaker so that a speaker's talks are adjacent.
+     */
+    static final class TalkColumns {
+        static final TalkColumns EMPTY = new TalkColumns(new long[0], new long[0], new long[0], new long[0]);
+
+        private final long[] talkIds;
+        private final long[] speakerIds;
+        private final long[] views;
+        private final long[] likes;
+
+        TalkColumns(long[] talkIds, long[] speakerIds, long[] views, long[] likes) {
+            this.talkIds = talkIds;
+            this.speakerIds = speakerIds;
+            this.views = views;
+            this.likes = likes;
+        }
+
+        int size() {
+            return speakerIds.length;
+        }
+
+        // the first index at or after index where a new speaker starts
+        int speakerBoundary(int index) {
+            while (index > 0 && index < speakerIds.length && speakerIds[index] == speakerIds[index - 1]) {
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * A copy without the talks keyed in {@code rows}, plus the non-null rows merged in speaker order.
+         */
+        TalkColumns replace(Map<Long, TalkRow> rows) {
+            LongLongHashMap touched = new LongLongHashMap();
+            rows.keySet().forEach(talkId -> touched.put(talkId, 0L));
+            List<TalkRow> added = rows.values().stream()
+                    .filter(row -> row != null)
+                    .sorted(Comparator.comparingLong(TalkRow::speakerId))
+                    .toList();
+            int capacity = speakerIds.length + added.size();
+            TalkColumns result = new TalkColumns(new long[capacity], new long[capacity], new long[capacity], new long[capacity]);
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < speakerIds.length; i++) {
+                for (; next < added.size() && added.get(next).speakerId() < speakerIds[i]; next++) {
+                    result.set(size++, added.get(next));
+                }
+                if (!touched.containsKey(talkIds[i])) {
+                    result.talkIds[size] = talkIds[i];
+                    result.speakerIds[size] = speakerIds[i];
+                    result.views[size] = views[i];
+                    result.likes[size++] = likes[i];
+                }
+            }
+            for (; next < added.size(); next++) {
+                result.set(size++, added.get(next));
+            }
+            return size == capacity ? result : result.truncate(size);
+        }
+
+        private void set(int index, TalkRow row) {
+            talkIds[index] = row.talkId();
+            speakerIds[index] = row.speakerId();
+            views[index] = row.views();
+            likes[index] = row.likes();
+        }
+
+        private TalkColumns truncate(int size) {
+            return new TalkColumns(Arrays.copyOf(talkIds, size), Arrays.copyOf(speakerIds, size),
+                    Arrays.copyOf(views, size), Arrays.copyOf(likes, size));
+        }
+
+        Sums sum(int from, int to) {
+            Sums sums = new Sums(to - from);
+            for (int i = from; i < to; i++) {
+                long speakerId = speakerIds[i];
+                if (sums.size == 0 || sums.ids[sums.size - 1] != speakerId) {
+                    sums.ids[sums.size++] = speakerId;
+                }
+                sums.views[sums.size - 1] += views[i];
+                sums.likes[sums.size - 1] += likes[i];
+            }
+            return sums;
+        }
+    }
+
+    /**
+     * Per speaker sums ordered by speaker id.
+     */
+    static final class Sums {
+        private long[] ids;
+        private long[] views;
+        private long[] likes;
+        private int size;
+
+        Sums(int capacity) {
+            ids = new long[capacity];
+            views = new long[capacity];
+            likes = new long[capacity];
+        }
+
+        // the speakers of this range all come before those of next
+        Sums concat(Sums next) {
+            Sums result = new Sums(size + next.size);
+            result.append(this, 0, size);
+            result.append(next, 0, next.size);
+            return result;
+        }
+
+        // speakers may appear in both, whose sums are added up
+        Sums merge(Sums other) {
+            Sums result = new Sums(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    result.append(this, i++, 1);
+                } else if (ids[i] > other.ids[j]) {
+                    result.append(other, j++, 1);
+                } else {
+                    result.append(this, i++, 1);
+                    result.views[result.size - 1] += other.views[j];
+                    result.likes[result.size - 1] += other.likes[j++];
+                }
+            }
+            result.append(this, i, size - i);
+            result.append(other, j, other.size - j);
+            return result;
+        }
+
+        private void append(Sums source, int from, int count) {
+            System.arraycopy(source.ids, from, ids, size, count);
+            System.arraycopy(source.views, from, views, size, count);
+            System.arraycopy(source.likes, from, likes, size, count);
+            size += count;
+        }
+    }
+
+    /**
+     * Sums a range of one year, splitting it at speaker boundaries so both halves can be concatenated.
+     */
+    private static final class RangeTask extends RecursiveTask<Sums> {
+        // a task is never serialized; RecursiveTask is Serializable only through ForkJoinTask
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient TalkColumns columns;
+        private final int from;
+        private final int to;
+        private final int splitThreshold;
+
+        RangeTask(TalkColumns columns, int from, int to, int splitThreshold) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.splitThreshold = splitThreshold;
+        }
+
+        @Override
+        protected Sums compute() {
+            int middle = to - from > splitThreshold ? columns.speakerBoundary((from + to) >>> 1) : to;
+            if (middle >= to) {
+                return columns.sum(from, to);
+            }
+            RangeTask left = new RangeTask(columns, from, middle, splitThreshold);
+            left.fork();
+            Sums right = new RangeTask(columns, middle, to, splitThreshold).compute();
+            return left.join().concat(right);
+        }
+    }
+
+    /**
+     * Sums several years, merging the per speaker sums of both halves.
+     */
+    private static final class PartitionsTask extends RecursiveTask<Sums> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<TalkColumns> partitions;
+        private final int from;
+        private final int to;
+        private final int splitThreshold;
+
+        PartitionsTask(List<TalkColumns> partitions, int from, int to, int splitThreshold) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.splitThreshold = splitThreshold;
+        }
+
+        @Override
+        protected Sums compute() {
+            if (to - from == 1) {
+                TalkColumns columns = partitions.get(from);
+                return new RangeTask(columns, 0, columns.size(), splitThreshold).compute();
+            }
+            int middle = (from + to) >>> 1;
+            PartitionsTask left = new PartitionsTask(partitions, from, middle, splitThreshold);
+            left.fork();
+            Sums right = new PartitionsTask(partitions, middle, to, splitThreshold).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Builds one {@link TalkColumns} per year from rows ordered by year and speaker.
+     */
+    private static final class PartitionLoader implements RowCallbackHandler {
+        private final Map<Integer, TalkColumns> partitions = new HashMap<>();
+        private long[] talkIds = new long[1024];
+        private long[] speakerIds = new long[1024];
+        private long[] views = new long[1024];
+        private long[] likes = new long[1024];
+        private int size;
+        private int year;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int rowYear = rs.getInt("talk_year");
+            if (size > 0 && rowYear != year) {
+                flush();
+            }
+            year = rowYear;
+            if (size == speakerIds.length) {
+                int capacity = size * 2;
+                talkIds = Arrays.copyOf(talkIds, capacity);
+                speakerIds = Arrays.copyOf(speakerIds, capacity);
+                views = Arrays.copyOf(views, capacity);
+                likes = Arrays.copyOf(likes, capacity);
+            }
+            talkIds[size] = rs.getLong("id");
+            speakerIds[size] = rs.getLong("speaker_id");
+            views[size] = rs.getLong("views");
+            likes[size] = rs.getLong("likes");
+            size++;
+        }
+
+        Map<Integer, TalkColumns> finish() {
+            if (size > 0) {
+                flush();
+            }
+            return partitions;
+        }
+
+        private void flush() {
+            partitions.put(year, new TalkColumns(Arrays.copyOf(talkIds, size), Arrays.copyOf(speakerIds, size),
+                    Arrays.copyOf(views, size), Arrays.copyOf(likes, size)));
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.config.InfluenceProperties;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.dto.InfluenceCacheStatsDto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used influence results, keyed by strategy, year and kind of result. An entry is
+ * dropped once a change to the talks or speakers of its year is committed; entries over all years
+ * are dropped on every change.
+ */
+@Component
+class InfluenceCache {
+    enum Kind {
+        RANKING,
+        MOST_INFLUENTIAL
+    }
+
+    record Key(String strategy, Optional<Integer> year, Kind kind) {
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, Object> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    // bumped on every change, so a result loaded from data read before the change is not kept
+    private long generation;
+
+    InfluenceCache(InfluenceProperties influenceProperties) {
+        Assert.isTrue(influenceProperties.getCacheSize() > 0, "tedtalks.influence.cache-size must be positive");
+        this.maxSize = influenceProperties.getCacheSize();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V get(Key key, Supplier<V> loader) {
+        long loadedAt;
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (V) cached;
+            }
+            loadedAt = generation;
+        }
+        misses.incrementAndGet();
+        // loaded outside the lock, so a slow query does not hold up hits on other keys
+        V value = loader.get();
+        synchronized (this) {
+            if (generation == loadedAt) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onInfluenceDataChanged(InfluenceDataChangedEvent event) {
+        generation++;
+        for (Iterator<Key> keys = entries.keySet().iterator(); keys.hasNext(); ) {
+            Optional<Integer> year = keys.next().year();
+            if (year.isEmpty() || event.affects(year.get())) {
+                keys.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    synchronized InfluenceCacheStatsDto stats() {
+        return new InfluenceCacheStatsDto(hits.get(), misses.get(), evictions.get(), invalidations.get(),
+                entries.size(), maxSize);
+    }
+}
@@ -0,0 +1,145 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.common.exception.InvalidInfluenceRequestException;
+import com.narciso.tedtalks.speakers.dto.RankedSpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.dto.SpeakerInfluenceDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Speakers sorted by score, best first, held as parallel arrays so that any page in rank order can be
+ * cut out of it without sorting again. Scores stay doubles until a speaker is returned.
+ */
+final class InfluenceRanking {
+    // matches the 0.00 format of the score in responses
+    private static final int SCORE_SCALE = 2;
+    private static final List<String> SORT_PROPERTIES = List.of("rank", "score", "name", "totalViews", "totalLikes", "speakerId");
+    // other orders are sorted once per ranking; a few distinct ones are all a client ever asks for
+    private static final int MAX_CACHED_ORDERS = 16;
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final long[] speakerIds;
+    private final String[] names;
+    private final long[] views;
+    private final long[] likes;
+    private final double[] scores;
+    // built on first use, then shared by every request served from the cached ranking
+    private volatile List<SpeakerInfluenceDto> list;
+    private final Map<Sort, int[]> orders = new ConcurrentHashMap<>();
+
+    InfluenceRanking(long[] speakerIds, String[] names, long[] views, long[] likes, double[] scores) {
+        this.speakerIds = speakerIds;
+        this.names = names;
+        this.views = views;
+        this.likes = likes;
+        this.scores = scores;
+    }
+
+    int size() {
+        return speakerIds.length;
+    }
+
+    List<SpeakerInfluenceDto> toList() {
+        List<SpeakerInfluenceDto> result = list;
+        if (result == null) {
+            result = Collections.unmodifiableList(head(size()));
+            list = result;
+        }
+        return result;
+    }
+
+    // the k best speakers, without building the rest
+    List<SpeakerInfluenceDto> head(int k) {
+        int size = Math.min(k, size());
+        List<SpeakerInfluenceDto> head = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            head.add(new SpeakerInfluenceDto(speakerIds[i], names[i],
+                    Math.toIntExact(views[i]), Math.toIntExact(likes[i]), toScore(scores[i])));
+        }
+        return head;
+    }
+
+    /**
+     * One page of the ranking, ordered best first unless the pageable sorts by any of {@link #SORT_PROPERTIES};
+     * ranks always count from the best speaker. Sorting by {@code score} or {@code rank} alone only walks
+     * the ranking forwards or backwards.
+     *
+     * @throws InvalidInfluenceRequestException when sorting by anything else
+     */
+    Page<RankedSpeakerInfluenceDto> page(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidInfluenceRequestException("Cannot sort the influence ranking by '" + order.getProperty()
+                        + "', only by " + String.join(", ", SORT_PROPERTIES));
+            }
+        }
+        boolean worstFirst = isOnly(sort, "rank", Sort.Direction.DESC) || isOnly(sort, "score", Sort.Direction.ASC);
+        boolean bestFirst = sort.isUnsorted()
+                || isOnly(sort, "rank", Sort.Direction.ASC) || isOnly(sort, "score", Sort.Direction.DESC);
+        int[] order = worstFirst || bestFirst ? null : order(sort);
+        int from = (int) Math.min(pageable.getOffset(), size());
+        int to = Math.min(from + pageable.getPageSize(), size());
+        List<RankedSpeakerInfluenceDto> content = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            int i = order != null ? order[position] : worstFirst ? size() - 1 - position : position;
+            content.add(new RankedSpeakerInfluenceDto(i + 1, speakerIds[i], names[i],
+                    Math.toIntExact(views[i]), Math.toIntExact(likes[i]), toScore(scores[i])));
+        }
+        return new PageImpl<>(content, pageable, size());
+    }
+
+    private static boolean isOnly(Sort sort, String property, Sort.Direction direction) {
+        List<Sort.Order> all = sort.toList();
+        return all.size() == 1 && all.get(0).getProperty().equals(property) && all.get(0).getDirection() == direction;
+    }
+
+    // positions of the ranking in the requested order, ties left in rank order
+    private int[] order(Sort sort) {
+        int[] cached = orders.get(sort);
+        if (cached != null) {
+            return cached;
+        }
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> next = comparator(order.getProperty());
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        int[] sorted = IntStream.range(0, size()).boxed()
+                .sorted(comparator)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        if (orders.size() < MAX_CACHED_ORDERS) {
+            orders.put(sort, sorted);
+        }
+        return sorted;
+    }
+
+    private Comparator<Integer> comparator(String property) {
+        return switch (property) {
+            case "score" -> (i, j) -> Double.compare(scores[i], scores[j]);
+            case "name" -> (i, j) -> NAME_ORDER.compare(names[i], names[j]);
+            case "totalViews" -> (i, j) -> Long.compare(views[i], views[j]);
+            case "totalLikes" -> (i, j) -> Long.compare(likes[i], likes[j]);
+            case "speakerId" -> (i, j) -> Long.compare(speakerIds[i], speakerIds[j]);
+            default -> Integer::compare;
+        };
+    }
+
+    static BigDecimal toScore(double score) {
+        return BigDecimal.valueOf(score).setScale(SCORE_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,52 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.speakers.domain.MostInfluentialSpeaker;
+import com.narciso.tedtalks.speakers.dto.InfluenceCacheStatsDto;
+import com.narciso.tedtalks.speakers.dto.RankedSpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.dto.SpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves influence results from {@link InfluenceCache}, going to {@link InfluenceService} only on a miss.
+ * Pages are cut from a sorted ranking built once per year (and once over all years), so a page costs
+ * no aggregation or sorting.
+ */
+@Service
+@RequiredArgsConstructor
+public class InfluenceRankingService {
+    private final InfluenceService influenceService;
+    private final InfluenceCache influenceCache;
+
+    public Page<RankedSpeakerInfluenceDto> rank(Optional<Integer> year, Pageable pageable, InfluenceStrategy strategy) {
+        return ranking(year, strategy).page(pageable);
+    }
+
+    public List<SpeakerInfluenceDto> analyzeInfluence(Optional<Integer> year, InfluenceStrategy strategy) {
+        return ranking(year, strategy).toList();
+    }
+
+    public Optional<MostInfluentialSpeaker> findMostInfluentialSpeaker(int year, InfluenceStrategy strategy) {
+        return influenceCache.get(key(Optional.of(year), strategy, InfluenceCache.Kind.MOST_INFLUENTIAL),
+                () -> influenceService.findMostInfluentialSpeaker(year, strategy));
+    }
+
+    public InfluenceCacheStatsDto cacheStats() {
+        return influenceCache.stats();
+    }
+
+    private InfluenceRanking ranking(Optional<Integer> year, InfluenceStrategy strategy) {
+        return influenceCache.get(key(year, strategy, InfluenceCache.Kind.RANKING),
+                () -> influenceService.ranking(year, strategy));
+    }
+
+    private InfluenceCache.Key key(Optional<Integer> year, InfluenceStrategy strategy, InfluenceCache.Kind kind) {
+        return new InfluenceCache.Key(strategy.key(), year, kind);
+    }
+}
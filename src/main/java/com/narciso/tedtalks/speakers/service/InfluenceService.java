@@ -3,88 +3,163 @@ package com.narciso.tedtalks.speakers.service;
 import com.narciso.tedtalks.speakers.domain.MostInfluentialSpeaker;
 import com.narciso.tedtalks.speakers.dto.SpeakerInfluenceDto;
 import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
-import java.math.BigDecimal;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
 
 @Service
 public class InfluenceService {
+    // the heap grows past this only when that many speakers actually come back
+    private static final int MAX_INITIAL_HEAP_CAPACITY = 1024;
+
     private final NamedParameterJdbcTemplate jdbc;
     private final InfluenceStrategy strategy;
+    // only present with tedtalks.influence.columnar-engine=true
+    private final Optional<ColumnarInfluenceEngine> columnarEngine;
 
     public InfluenceService(NamedParameterJdbcTemplate jdbc,
-//                            @Qualifier("compositeStrategy")
-                            InfluenceStrategy strategy) {
+                            InfluenceStrategy strategy,
+                            Optional<ColumnarInfluenceEngine> columnarEngine) {
 
         this.jdbc = jdbc;
         this.strategy = strategy;
+        this.columnarEngine = columnarEngine;
     }
 
+    // every query reads the per speaker and year totals kept up to date by TalkDao, never the talks themselves,
+    // unless the columnar engine is enabled, which sums the talks it holds in memory instead
     public List<SpeakerInfluenceDto> analyzeInfluence(Optional<Integer> year) {
+        return ranking(year, strategy).toList();
+    }
+
+    /**
+     * Every speaker with talks in {@code year} (or in any year), scored and sorted best first.
+     */
+    InfluenceRanking ranking(Optional<Integer> year, InfluenceStrategy strategy) {
+        return scan(year).rank(strategy);
+    }
+
+    /**
+     * The {@code k} best speakers under each strategy, keyed by {@link InfluenceStrategy#key()}. The totals
+     * are read once and scored by every strategy, so comparing strategies costs a single query.
+     */
+    public Map<String, List<SpeakerInfluenceDto>> compare(Optional<Integer> year, int k, List<InfluenceStrategy> strategies) {
+        Assert.isTrue(k > 0, "k must be positive");
+        Assert.notEmpty(strategies, "At least one strategy is required");
+        SpeakerTotals rows = scan(year);
+        Map<String, List<SpeakerInfluenceDto>> tops = new LinkedHashMap<>();
+        for (InfluenceStrategy candidate : strategies) {
+            tops.put(candidate.key(), rows.rank(candidate).head(k));
+        }
+        return tops;
+    }
+
+    private SpeakerTotals scan(Optional<Integer> year) {
+        if (columnarEngine.isPresent()) {
+            return columnarEngine.get().totals(year);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        SpeakerTotals rows = new SpeakerTotals();
+        jdbc.query(influenceSql(year, params).toString(), params, rows);
+        return rows;
+    }
+
+    /**
+     * The {@code k} highest scoring speakers, best first. The ranking runs in SQL when the strategy has an
+     * SQL form; otherwise the rows are streamed through a heap that never holds more than {@code k} of them.
+     * With the columnar engine enabled the totals come from memory and go through the same bounded heap.
+     */
+    public List<SpeakerInfluenceDto> topK(Optional<Integer> year, int k) {
+        return topK(year, k, strategy);
+    }
+
+    public List<SpeakerInfluenceDto> topK(Optional<Integer> year, int k, InfluenceStrategy strategy) {
+        Assert.isTrue(k > 0, "k must be positive");
+        if (columnarEngine.isPresent()) {
+            return columnarEngine.get().totals(year).top(strategy, k).toList();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = influenceSql(year, params);
+
+        Optional<String> sqlScore = strategy.sqlScore("SUM(st.total_views)", "SUM(st.total_likes)");
+        if (sqlScore.isPresent()) {
+            sql.append(" ORDER BY ").append(sqlScore.get()).append(" DESC, s.id LIMIT :k");
+            params.addValue("k", k);
+            SpeakerTotals rows = new SpeakerTotals();
+            jdbc.query(sql.toString(), params, rows);
+            return rows.rank(strategy).toList();
+        }
+
+        // worst first: the lower score, and on a tie the higher id, as the SQL ordering breaks ties by s.id
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(k, MAX_INITIAL_HEAP_CAPACITY),
+                Comparator.comparingDouble(Candidate::score).thenComparingLong(candidate -> -candidate.speakerId()));
+        jdbc.query(sql.toString(), params, (RowCallbackHandler) rs -> {
+            long speakerId = rs.getLong("speaker_id");
+            long views = rs.getLong("total_views");
+            long likes = rs.getLong("total_likes");
+            double score = strategy.score(views, likes);
+            if (heap.size() < k) {
+                heap.add(new Candidate(speakerId, rs.getString("name"), views, likes, score));
+            } else if (score > heap.peek().score() || score == heap.peek().score() && speakerId < heap.peek().speakerId()) {
+                heap.poll();
+                heap.add(new Candidate(speakerId, rs.getString("name"), views, likes, score));
+            }
+        });
+        // the heap gives the worst candidate first, so fill the arrays from the back
+        int size = heap.size();
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        long[] views = new long[size];
+        long[] likes = new long[size];
+        double[] scores = new double[size];
+        for (int i = size - 1; i >= 0; i--) {
+            Candidate candidate = heap.poll();
+            ids[i] = candidate.speakerId();
+            names[i] = candidate.name();
+            views[i] = candidate.views();
+            likes[i] = candidate.likes();
+            scores[i] = candidate.score();
+        }
+        return new InfluenceRanking(ids, names, views, likes, scores).toList();
+    }
+
+    public Optional<MostInfluentialSpeaker> findMostInfluentialSpeaker(int year) {
+        return findMostInfluentialSpeaker(year, strategy);
+    }
+
+    public Optional<MostInfluentialSpeaker> findMostInfluentialSpeaker(int year, InfluenceStrategy strategy) {
+        return topK(Optional.of(year), 1, strategy).stream()
+                .findFirst()
+                .map(top -> new MostInfluentialSpeaker(top.getSpeakerId(), top.getName(), top.getScore()));
+    }
+
+    private StringBuilder influenceSql(Optional<Integer> year, MapSqlParameterSource params) {
         StringBuilder sql = new StringBuilder("""
-            SELECT s.id          AS speaker_id,
-                   s.name        AS name,
-                   SUM(t.views)  AS total_views,
-                   SUM(t.likes)  AS total_likes
-              FROM speakers s
-              JOIN talks t ON t.speaker_id = s.id
+            SELECT s.id                AS speaker_id,
+                   s.name              AS name,
+                   SUM(st.total_views) AS total_views,
+                   SUM(st.total_likes) AS total_likes
+              FROM speaker_year_stats st
+              JOIN speakers s ON s.id = st.speaker_id
+             WHERE st.talk_count > 0
             """);
-        MapSqlParameterSource params = new MapSqlParameterSource();
         if (year.isPresent()) {
-            sql.append(" WHERE SUBSTRING(t.date,1,4) = :year");
-            params.addValue("year", String.valueOf(year.get()));
+            sql.append(" AND st.talk_year = :year");
+            params.addValue("year", year.get());
         }
         sql.append(" GROUP BY s.id, s.name");
-
-        List<SpeakerInfluenceDto> list = jdbc.query(
-                sql.toString(),
-                params,
-                (rs, rowNum) -> {
-                    int views = rs.getInt("total_views");
-                    int likes = rs.getInt("total_likes");
-                    BigDecimal score = strategy.score(views, likes);
-                    return new SpeakerInfluenceDto(
-                            rs.getLong("speaker_id"),
-                            rs.getString("name"),
-                            views,
-                            likes,
-                            score
-                    );
-                }
-        );
-
-        return list.stream()
-                .sorted(Comparator.comparing(SpeakerInfluenceDto::getScore).reversed())
-                .collect(Collectors.toList());
+        return sql;
     }
 
-    public Optional<MostInfluentialSpeaker> findMostInfluentialSpeaker(int year) {
-        String sql = """
-            SELECT s.id, s.name, SUM(t.views) AS total_views, SUM(t.likes) AS total_likes
-            FROM speakers s
-            JOIN talks t ON t.speaker_id = s.id
-            WHERE SUBSTRING(t.date,1,4) = :year
-            GROUP BY s.id, s.name
-        """;
-        var params = new MapSqlParameterSource().addValue("year", String.valueOf(year));
-
-        return jdbc.query(sql, params, (rs, rowNum) -> {
-                    int views = rs.getInt("total_views");
-                    int likes = rs.getInt("total_likes");
-                    BigDecimal score = strategy.score(views, likes);
-                    return new MostInfluentialSpeaker(
-                            rs.getLong("id"),
-                            rs.getString("name"),
-                            score
-                    );
-                }).stream()
-                .max((a, b) -> a.getScore().compareTo(b.getScore()));
+    private record Candidate(long speakerId, String name, long views, long likes, double score) {
     }
 }
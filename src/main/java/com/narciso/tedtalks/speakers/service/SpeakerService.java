@@ -2,17 +2,25 @@ package com.narciso.tedtalks.speakers.service;
 
 import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
 import com.narciso.tedtalks.speakers.dao.SpeakerDao;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
 import com.narciso.tedtalks.speakers.domain.Speaker;
+import com.narciso.tedtalks.talks.domain.StoredTalksChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class SpeakerService {
     private final SpeakerDao speakerDao;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Speaker findOrCreate(String name) {
@@ -22,6 +30,15 @@ public class SpeakerService {
                 ));
     }
 
+    @Transactional
+    public Map<String, Long> createAll(Collection<String> names) {
+        return speakerDao.saveAll(names);
+    }
+
+    public Map<String, Long> findAllIdsByName() {
+        return speakerDao.findAllIdsByName();
+    }
+
     public Page<Speaker> findAll(Pageable pageable) {
         return speakerDao.findAll(pageable);
     }
@@ -41,13 +58,21 @@ public class SpeakerService {
     @Transactional
     public Speaker update(Long id, Speaker s) {
         Speaker existing = findById(id);
+        boolean renamed = !existing.getName().equals(s.getName());
         existing.setName(s.getName());
         speakerDao.update(existing);
+        if (renamed) {
+            eventPublisher.publishEvent(InfluenceDataChangedEvent.forSpeakers(Set.of(id)));
+            // imported rows are matched to speakers by name
+            eventPublisher.publishEvent(StoredTalksChangedEvent.forAllYears());
+        }
         return existing;
     }
     @Transactional
     public void delete(Long id) {
         findById(id);
+        // a speaker with talks cannot be deleted, so no stored talk changes here
         speakerDao.delete(id);
+        eventPublisher.publishEvent(InfluenceDataChangedEvent.forSpeakers(Set.of(id)));
     }
 }
@@ -0,0 +1,146 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Views and likes per speaker in parallel arrays, so a strategy can score them all in one call.
+ * Filled from query rows, or handed over ready-made by {@link ColumnarInfluenceEngine}.
+ */
+final class SpeakerTotals implements RowCallbackHandler {
+    private long[] ids;
+    private String[] names;
+    private long[] views;
+    private long[] likes;
+    private int size;
+
+    SpeakerTotals() {
+        this(new long[64], new String[64], new long[64], new long[64], 0);
+    }
+
+    SpeakerTotals(long[] ids, String[] names, long[] views, long[] likes, int size) {
+        this.ids = ids;
+        this.names = names;
+        this.views = views;
+        this.likes = likes;
+        this.size = size;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            views = Arrays.copyOf(views, capacity);
+            likes = Arrays.copyOf(likes, capacity);
+        }
+        ids[size] = rs.getLong("speaker_id");
+        names[size] = rs.getString("name");
+        views[size] = rs.getLong("total_views");
+        likes[size] = rs.getLong("total_likes");
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // best first, speakers keeping their order on ties; a heap of every index sorts them without boxing one
+    InfluenceRanking rank(InfluenceStrategy strategy) {
+        return top(strategy, size);
+    }
+
+    /**
+     * The {@code k} best speakers, best first, chosen with a heap of {@code k} indexes instead of sorting them all.
+     */
+    InfluenceRanking top(InfluenceStrategy strategy, int k) {
+        double[] scores = score(strategy);
+        int limit = Math.min(k, size);
+        // min-heap on score, the earlier speaker counting as better on ties
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < limit) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, scores);
+            } else if (limit > 0 && scores[i] > scores[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+        // popping the worst first fills the order from the back
+        int[] order = new int[heapSize];
+        for (int position = heapSize - 1; position >= 0; position--) {
+            order[position] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, scores);
+        }
+        return select(order, scores);
+    }
+
+    private double[] score(InfluenceStrategy strategy) {
+        double[] scores = new double[size];
+        if (size > 0) {
+            strategy.scoreAll(views, likes, scores, size);
+        }
+        return scores;
+    }
+
+    private InfluenceRanking select(int[] order, double[] scores) {
+        int count = order.length;
+        long[] rankedIds = new long[count];
+        String[] rankedNames = new String[count];
+        long[] rankedViews = new long[count];
+        long[] rankedLikes = new long[count];
+        double[] rankedScores = new double[count];
+        for (int position = 0; position < count; position++) {
+            int i = order[position];
+            rankedIds[position] = ids[i];
+            rankedNames[position] = names[i];
+            rankedViews[position] = views[i];
+            rankedLikes[position] = likes[i];
+            rankedScores[position] = scores[i];
+        }
+        return new InfluenceRanking(rankedIds, rankedNames, rankedViews, rankedLikes, rankedScores);
+    }
+
+    private static boolean worse(int a, int b, double[] scores) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        int item = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(item, heap[parent], scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = item;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, double[] scores) {
+        if (heapSize == 0) {
+            return;
+        }
+        int item = heap[0];
+        int index = 0;
+        for (int child; (child = 2 * index + 1) < heapSize; index = child) {
+            if (child + 1 < heapSize && worse(heap[child + 1], heap[child], scores)) {
+                child++;
+            }
+            if (!worse(heap[child], item, scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = item;
+    }
+}
@@ -1,15 +1,31 @@
 package com.narciso.tedtalks.speakers.strategy;
 
 import org.springframework.stereotype.Component;
-import java.math.BigDecimal;
-import java.math.MathContext;
+import java.util.Optional;
 
 @Component("compositeStrategy")
 public class CompositeStrategy implements InfluenceStrategy {
+    public static final String NAME = "composite";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double score(long totalViews, long totalLikes) {
+        return Math.log1p(totalViews) + Math.log1p(totalLikes);
+    }
+
+    @Override
+    public void scoreAll(long[] views, long[] likes, double[] scores, int count) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = Math.log1p(views[i]) + Math.log1p(likes[i]);
+        }
+    }
+
     @Override
-    public BigDecimal score(long totalViews, long totalLikes) {
-        BigDecimal normViews = BigDecimal.valueOf(Math.log1p(totalViews));
-        BigDecimal normLikes = BigDecimal.valueOf(Math.log1p(totalLikes));
-        return normViews.add(normLikes, MathContext.DECIMAL64);
+    public Optional<String> sqlScore(String viewsColumn, String likesColumn) {
+        return Optional.of("(LN(1 + " + viewsColumn + ") + LN(1 + " + likesColumn + "))");
     }
 }
@@ -1,7 +1,47 @@
 package com.narciso.tedtalks.speakers.strategy;
 
-import java.math.BigDecimal;
+import com.narciso.tedtalks.common.exception.InvalidInfluenceStrategyException;
+
+import java.util.Optional;
 
 public interface InfluenceStrategy {
-    BigDecimal score(long totalViews, long totalLikes);
+    /**
+     * The name requests select the strategy by, e.g. {@code weighted}.
+     */
+    String name();
+
+    /**
+     * Identifies the strategy together with its parameters, so results of differently weighted
+     * strategies are never mixed up.
+     */
+    default String key() {
+        return name();
+    }
+
+    double score(long totalViews, long totalLikes);
+
+    /**
+     * Scores the first {@code count} speakers in one call, writing {@code scores[i]} for
+     * {@code views[i]} and {@code likes[i]}.
+     */
+    default void scoreAll(long[] views, long[] likes, double[] scores, int count) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(views[i], likes[i]);
+        }
+    }
+
+    /**
+     * The same score as an SQL expression over the given columns, so ranking can be pushed down
+     * to the database; empty when the strategy cannot be expressed in SQL.
+     */
+    default Optional<String> sqlScore(String viewsColumn, String likesColumn) {
+        return Optional.empty();
+    }
+
+    /**
+     * This strategy with the given weights for views and likes.
+     */
+    default InfluenceStrategy withWeights(double viewWeight, double likeWeight) {
+        throw new InvalidInfluenceStrategyException("The " + name() + " strategy does not take weights");
+    }
 }
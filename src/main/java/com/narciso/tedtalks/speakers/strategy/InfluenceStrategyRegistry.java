@@ -0,0 +1,80 @@
+package com.narciso.tedtalks.speakers.strategy;
+
+import com.narciso.tedtalks.common.exception.InvalidInfluenceStrategyException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Every {@link InfluenceStrategy} bean by name, so a request can pick the strategy and its weights.
+ */
+@Component
+public class InfluenceStrategyRegistry {
+    private static final Pattern SPEC = Pattern.compile("(\\w+)(?::([^:]+):([^:]+))?");
+
+    private final Map<String, InfluenceStrategy> strategies;
+    private final InfluenceStrategy defaultStrategy;
+
+    public InfluenceStrategyRegistry(List<InfluenceStrategy> strategies, InfluenceStrategy defaultStrategy) {
+        this.strategies = Collections.unmodifiableMap(strategies.stream()
+                .collect(Collectors.toMap(InfluenceStrategy::name, Function.identity(), (a, b) -> {
+                    throw new IllegalStateException("Two influence strategies are named " + a.name());
+                }, TreeMap::new)));
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    /**
+     * @param name the strategy name, or {@code null} for the default strategy
+     * @param viewWeight together with {@code likeWeight} replaces the weights of the strategy; {@code null} keeps them
+     */
+    public InfluenceStrategy resolve(String name, Double viewWeight, Double likeWeight) {
+        InfluenceStrategy strategy = defaultStrategy;
+        if (name != null) {
+            strategy = strategies.get(name);
+            if (strategy == null) {
+                throw new InvalidInfluenceStrategyException(
+                        "Unknown influence strategy '" + name + "', expected one of " + names());
+            }
+        }
+        if (viewWeight == null && likeWeight == null) {
+            return strategy;
+        }
+        if (viewWeight == null || likeWeight == null) {
+            throw new InvalidInfluenceStrategyException("viewWeight and likeWeight must be given together");
+        }
+        return strategy.withWeights(viewWeight, likeWeight);
+    }
+
+    /**
+     * Resolves a strategy written the way {@link InfluenceStrategy#key()} prints it: a name, optionally
+     * followed by its weights, e.g. {@code composite} or {@code weighted:0.5:0.5}. Colons rather than commas,
+     * since request parameters are split on commas.
+     */
+    public InfluenceStrategy resolve(String spec) {
+        Matcher matcher = SPEC.matcher(spec.trim());
+        if (!matcher.matches()) {
+            throw new InvalidInfluenceStrategyException("Invalid influence strategy '" + spec
+                    + "', expected a name such as weighted or weighted:viewWeight:likeWeight");
+        }
+        if (matcher.group(2) == null) {
+            return resolve(matcher.group(1), null, null);
+        }
+        try {
+            return resolve(matcher.group(1), Double.valueOf(matcher.group(2)), Double.valueOf(matcher.group(3)));
+        } catch (NumberFormatException e) {
+            throw new InvalidInfluenceStrategyException("Invalid weights in influence strategy '" + spec + "'");
+        }
+    }
+
+    public Set<String> names() {
+        return strategies.keySet();
+    }
+}
@@ -1,18 +1,67 @@
 package com.narciso.tedtalks.speakers.strategy;
 
+import com.narciso.tedtalks.common.exception.InvalidInfluenceStrategyException;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.Optional;
+
 @Primary
 @Component
 public class WeightedStrategy implements InfluenceStrategy {
-    private static final BigDecimal VIEW_WEIGHT = BigDecimal.valueOf(0.7);
-    private static final BigDecimal LIKE_WEIGHT = BigDecimal.valueOf(0.3);
+    public static final String NAME = "weighted";
+    private static final double DEFAULT_VIEW_WEIGHT = 0.7;
+    private static final double DEFAULT_LIKE_WEIGHT = 0.3;
+
+    private final double viewWeight;
+    private final double likeWeight;
+
+    public WeightedStrategy() {
+        this(DEFAULT_VIEW_WEIGHT, DEFAULT_LIKE_WEIGHT);
+    }
+
+    public WeightedStrategy(double viewWeight, double likeWeight) {
+        if (!isWeight(viewWeight) || !isWeight(likeWeight)) {
+            throw new InvalidInfluenceStrategyException(
+                    "Weights must be finite and not negative: viewWeight=" + viewWeight + ", likeWeight=" + likeWeight);
+        }
+        this.viewWeight = viewWeight;
+        this.likeWeight = likeWeight;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String key() {
+        return NAME + ":" + viewWeight + ":" + likeWeight;
+    }
 
     @Override
-    public BigDecimal score(long totalViews, long totalLikes) {
-        return BigDecimal.valueOf(totalViews).multiply(VIEW_WEIGHT)
-                .add(BigDecimal.valueOf(totalLikes).multiply(LIKE_WEIGHT));
+    public double score(long totalViews, long totalLikes) {
+        return totalViews * viewWeight + totalLikes * likeWeight;
+    }
+
+    @Override
+    public void scoreAll(long[] views, long[] likes, double[] scores, int count) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = views[i] * viewWeight + likes[i] * likeWeight;
+        }
+    }
+
+    @Override
+    public Optional<String> sqlScore(String viewsColumn, String likesColumn) {
+        return Optional.of("(" + viewsColumn + " * " + viewWeight + " + " + likesColumn + " * " + likeWeight + ")");
+    }
+
+    @Override
+    public InfluenceStrategy withWeights(double viewWeight, double likeWeight) {
+        return new WeightedStrategy(viewWeight, likeWeight);
+    }
+
+    private static boolean isWeight(double weight) {
+        return Double.isFinite(weight) && weight >= 0;
     }
 }
@@ -1,20 +1,25 @@
 package com.narciso.tedtalks.talks.dao;
 
+import com.narciso.tedtalks.common.utils.LongLongHashMap;
 import com.narciso.tedtalks.talks.domain.Talk;
+import com.narciso.tedtalks.talks.domain.TalkFingerprint;
 import com.narciso.tedtalks.talks.dto.TalkDto;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder; 
 import org.springframework.jdbc.support.KeyHolder; 
 import org.springframework.stereotype.Repository;
 
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map; 
 import java.util.Objects; 
@@ -25,31 +30,151 @@ public class TalkDao {
     private final NamedParameterJdbcTemplate jdbc;
     private final TalkRowMapper talkRowMapper = new TalkRowMapper();
     private static final DateTimeFormatter DB_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final String INSERT_SQL = "INSERT INTO talks (title, date, views, likes, link, speaker_id) " +
+            "VALUES (:title, :dateStr, :views, :likes, :link, :speakerId)";
+    private static final String MERGE_SQL = """
+            MERGE INTO talks t
+            USING (VALUES (CAST(:title AS VARCHAR(500)), CAST(:dateStr AS VARCHAR(20)), CAST(:speakerId AS BIGINT),
+                           CAST(:views AS BIGINT), CAST(:likes AS BIGINT), CAST(:link AS VARCHAR(1000))))
+                  AS s (title, talk_date, speaker_id, views, likes, link)
+            ON t.title = s.title AND t.speaker_id = s.speaker_id AND t.date = s.talk_date
+            WHEN MATCHED THEN UPDATE SET views = s.views, likes = s.likes
+            WHEN NOT MATCHED THEN INSERT (title, date, views, likes, link, speaker_id)
+                VALUES (s.title, s.talk_date, s.views, s.likes, s.link, s.speaker_id)
+            """;
+    // applies the view/like/talk deltas of the USING source to speaker_year_stats
+    private static final String STATS_MERGE_SQL = """
+            MERGE INTO speaker_year_stats st
+            USING %s
+            ON st.speaker_id = delta.speaker_id AND st.talk_year = delta.talk_year
+            WHEN MATCHED THEN UPDATE SET total_views = st.total_views + delta.views,
+                                         total_likes = st.total_likes + delta.likes,
+                                         talk_count = st.talk_count + delta.talks
+            WHEN NOT MATCHED THEN INSERT (speaker_id, talk_year, total_views, total_likes, talk_count)
+                VALUES (delta.speaker_id, delta.talk_year, delta.views, delta.likes, delta.talks)
+            """;
+    private static final String ADD_STATS_SQL = STATS_MERGE_SQL.formatted("""
+            (VALUES (CAST(:speakerId AS BIGINT), CAST(:year AS INT), CAST(:views AS BIGINT),
+                     CAST(:likes AS BIGINT), CAST(:talks AS BIGINT)))
+                  AS delta (speaker_id, talk_year, views, likes, talks)""");
+    private static final String REMOVE_STATS_SQL = STATS_MERGE_SQL.formatted("""
+            (SELECT speaker_id, talk_year,
+                    -views AS views, -likes AS likes, -1 AS talks
+               FROM talks WHERE id = :id) AS delta""");
+    // the difference between the merged row and the stored one, if any, matched like MERGE_SQL
+    private static final String MERGE_STATS_SQL = STATS_MERGE_SQL.formatted("""
+            (SELECT d.speaker_id, d.talk_year,
+                    d.views - COALESCE(t.views, 0) AS views, d.likes - COALESCE(t.likes, 0) AS likes,
+                    CASE WHEN t.id IS NULL THEN 1 ELSE 0 END AS talks
+               FROM (VALUES (CAST(:title AS VARCHAR(500)), CAST(:dateStr AS VARCHAR(20)), CAST(:speakerId AS BIGINT),
+                             CAST(:views AS BIGINT), CAST(:likes AS BIGINT), CAST(:year AS INT)))
+                    AS d (title, talk_date, speaker_id, views, likes, talk_year)
+               LEFT JOIN talks t ON t.title = d.title AND t.speaker_id = d.speaker_id AND t.date = d.talk_date) AS delta""");
 
     public TalkDao(NamedParameterJdbcTemplate jdbc) {
         this.jdbc = jdbc;
     }
 
     public Talk create(Talk t) {
-        var sql = "INSERT INTO talks (title, date, views, likes, link, speaker_id) " +
-                "VALUES (:title, :dateStr, :views, :likes, :link, :speakerId)";
-        var params = new MapSqlParameterSource()
-                .addValue("title", t.getTitle())
-                .addValue("dateStr", t.getDate().format(DB_DATE_FORMATTER))
-                .addValue("views", t.getViews())
-                .addValue("likes", t.getLikes())
-                .addValue("link", t.getLink())
-                .addValue("speakerId", t.getSpeakerId());
-
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
-        jdbc.update(sql, params, keyHolder, new String[]{"id"});
+        jdbc.update(INSERT_SQL, insertParams(t), keyHolder, new String[]{"id"});
 
         Long generatedId = Objects.requireNonNull(keyHolder.getKey()).longValue();
         t.setId(generatedId);
+        addStats(List.of(t));
         return t;
     }
 
+    public List<Talk> createAll(List<Talk> talks) {
+        if (talks.isEmpty()) {
+            return talks;
+        }
+        SqlParameterSource[] batch = talks.stream()
+                .map(this::insertParams)
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbc.batchUpdate(INSERT_SQL, batch, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < talks.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            talks.get(i).setId(id.longValue());
+        }
+        addStats(talks);
+        return talks;
+    }
+
+    /**
+     * Inserts new talks and refreshes views/likes of existing ones, matched on title, speaker and date.
+     */
+    public void mergeAll(List<Talk> talks) {
+        if (talks.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = talks.stream()
+                .map(this::insertParams)
+                .toArray(SqlParameterSource[]::new);
+        // the stats delta is read from the rows as they were before the merge
+        jdbc.batchUpdate(MERGE_STATS_SQL, batch);
+        jdbc.batchUpdate(MERGE_SQL, batch);
+    }
+
+    /**
+     * Adds the talks to speaker_year_stats, one statement per speaker and year in a single batch.
+     */
+    private void addStats(List<Talk> talks) {
+        Map<Long, long[]> deltas = new LinkedHashMap<>();
+        for (Talk t : talks) {
+            long[] delta = deltas.computeIfAbsent(statsKey(t.getSpeakerId(), t.getDate().getYear()), k -> new long[3]);
+            delta[0] += t.getViews();
+            delta[1] += t.getLikes();
+            delta[2]++;
+        }
+        SqlParameterSource[] batch = deltas.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("speakerId", e.getKey() >>> 16)
+                        .addValue("year", (int) (e.getKey() & 0xFFFF))
+                        .addValue("views", e.getValue()[0])
+                        .addValue("likes", e.getValue()[1])
+                        .addValue("talks", e.getValue()[2]))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(ADD_STATS_SQL, batch);
+    }
+
+    private long statsKey(long speakerId, int year) {
+        return speakerId << 16 | year;
+    }
+
+    /**
+     * Takes the talk out of speaker_year_stats, dropping its speaker and year once no talk is left there.
+     * Only that key can have emptied, so it is deleted by primary key instead of scanning talk_count.
+     */
+    private void removeStats(Long id) {
+        List<MapSqlParameterSource> keys = jdbc.query("SELECT speaker_id, talk_year FROM talks WHERE id = :id",
+                Map.of("id", id), (rs, rowNum) -> new MapSqlParameterSource()
+                        .addValue("speakerId", rs.getLong("speaker_id"))
+                        .addValue("year", rs.getInt("talk_year")));
+        jdbc.update(REMOVE_STATS_SQL, Map.of("id", id));
+        for (MapSqlParameterSource key : keys) {
+            jdbc.update("DELETE FROM speaker_year_stats " +
+                    "WHERE speaker_id = :speakerId AND talk_year = :year AND talk_count = 0", key);
+        }
+    }
+
+    private MapSqlParameterSource insertParams(Talk t) {
+        return new MapSqlParameterSource()
+                .addValue("title", t.getTitle())
+                .addValue("dateStr", t.getDate().format(DB_DATE_FORMATTER))
+                .addValue("year", t.getDate().getYear())
+                .addValue("views", t.getViews())
+                .addValue("likes", t.getLikes())
+                .addValue("link", t.getLink())
+                .addValue("speakerId", t.getSpeakerId());
+    }
+
     public void update(Talk talk) {
         var sql = "UPDATE talks SET " +
                 "title = :title, " +
@@ -69,11 +194,14 @@ public class TalkDao {
                 .addValue("link", talk.getLink())
                 .addValue("speakerId", talk.getSpeakerId());
 
+        removeStats(talk.getId());
         jdbc.update(sql, params);
+        addStats(List.of(talk));
     }
 
     public void delete(Long id) {
         var sql = "DELETE FROM talks WHERE id = :id";
+        removeStats(id);
         jdbc.update(sql, Map.of("id", id));
     }
 
@@ -126,7 +254,7 @@ public class TalkDao {
                     Talk.builder()
                             .id(rs.getLong("id"))
                             .title(rs.getString("title"))
-                            .date(YearMonth.parse(rs.getString("date"), DB_DATE_FORMATTER))
+                            .date(YearMonth.of(rs.getInt("talk_year"), rs.getInt("talk_month")))
                             .views(rs.getInt ("views"))
                             .likes(rs.getInt("likes"))
                             .link(rs.getString("link"))
@@ -139,6 +267,21 @@ public class TalkDao {
         }
     }
 
+    /**
+     * @return identity fingerprint to views/likes fingerprint of every stored talk
+     */
+    public LongLongHashMap findAllFingerprints() {
+        LongLongHashMap fingerprints = new LongLongHashMap();
+        jdbc.query("SELECT title, speaker_id, talk_year, talk_month, views, likes FROM talks", new MapSqlParameterSource(),
+                (RowCallbackHandler) rs -> fingerprints.put(
+                        TalkFingerprint.of(
+                                rs.getString("title"),
+                                rs.getLong("speaker_id"),
+                                YearMonth.of(rs.getInt("talk_year"), rs.getInt("talk_month"))),
+                        TalkFingerprint.content(rs.getLong("views"), rs.getLong("likes"))));
+        return fingerprints;
+    }
+
     private String buildSortClause(Sort sort) {
         StringBuilder sortClause = new StringBuilder("ORDER BY ");
         if (sort.isSorted()) {
@@ -151,8 +294,13 @@ public class TalkDao {
                 if (!first) {
                     sortClause.append(", ");
                 }
-                String columnName = mapPropertyToColumn(property);
-                sortClause.append(columnName).append(" ").append(order.getDirection().name());
+                String direction = order.getDirection().name();
+                if ("date".equals(property)) {
+                    // the indexed integer columns sort the same as the yyyy-MM string
+                    sortClause.append("talk_year ").append(direction).append(", talk_month ").append(direction);
+                } else {
+                    sortClause.append(mapPropertyToColumn(property)).append(" ").append(direction);
+                }
                 first = false;
             }
             if (first) {
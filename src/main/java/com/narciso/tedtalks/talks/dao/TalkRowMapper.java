@@ -6,11 +6,8 @@ import org.springframework.jdbc.core.RowMapper;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 
 public class TalkRowMapper implements RowMapper<TalkDto> {
-    private static final DateTimeFormatter DB_DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM");
 
     @Override
     public TalkDto mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -20,7 +17,7 @@ public class TalkRowMapper implements RowMapper<TalkDto> {
         return TalkDto.builder()
                 .id(rs.getLong("id"))
                 .title(rs.getString("title"))
-                .date(YearMonth.parse(rs.getString("date"), DB_DATE_FORMATTER))
+                .date(YearMonth.of(rs.getInt("talk_year"), rs.getInt("talk_month")))
                 .views(rs.getInt("views"))
                 .likes(rs.getInt("likes"))
                 .link(rs.getString("link"))
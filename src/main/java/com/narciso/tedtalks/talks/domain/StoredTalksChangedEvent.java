@@ -0,0 +1,20 @@
+package com.narciso.tedtalks.talks.domain;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside the transaction of a write that changes talks already stored, as opposed to adding new
+ * ones: talk updates and deletes, upserts and speaker renames. {@code sameTalks} says the talks kept their
+ * title, speaker and date, so only their views, likes or link differ from what wrote them.
+ */
+public record StoredTalksChangedEvent(Set<Integer> years, boolean allYears, boolean sameTalks) {
+
+    public static StoredTalksChangedEvent forYears(Collection<Integer> years, boolean sameTalks) {
+        return new StoredTalksChangedEvent(Set.copyOf(years), false, sameTalks);
+    }
+
+    public static StoredTalksChangedEvent forAllYears() {
+        return new StoredTalksChangedEvent(Set.of(), true, false);
+    }
+}
@@ -0,0 +1,36 @@
+package com.narciso.tedtalks.talks.domain;
+
+import java.time.YearMonth;
+
+/**
+ * 64-bit fingerprint of the talk identity (title + speaker + month), used to dedupe
+ * imports in memory, and of its counters, used to tell unchanged rows from changed ones.
+ * The unique index on talks remains the source of truth.
+ */
+public final class TalkFingerprint {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private TalkFingerprint() {
+    }
+
+    public static long of(String title, long speakerId, YearMonth date) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < title.length(); i++) {
+            h ^= title.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h = mix(h ^ speakerId);
+        return mix(h ^ ((long) date.getYear() << 4 | date.getMonthValue()));
+    }
+
+    public static long content(long views, long likes) {
+        return mix(mix(views) ^ likes);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
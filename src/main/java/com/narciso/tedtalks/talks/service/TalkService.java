@@ -1,15 +1,22 @@
 package com.narciso.tedtalks.talks.service;
 
+import com.narciso.tedtalks.common.exception.DuplicateTalkException;
 import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
+import com.narciso.tedtalks.common.utils.LongLongHashMap;
 import com.narciso.tedtalks.imports.dto.CsvRecord;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent.TalkRow;
 import com.narciso.tedtalks.speakers.domain.Speaker;
 import com.narciso.tedtalks.speakers.service.SpeakerService;
 import com.narciso.tedtalks.talks.dao.TalkDao;
+import com.narciso.tedtalks.talks.domain.StoredTalksChangedEvent;
 import com.narciso.tedtalks.talks.domain.Talk;
 import com.narciso.tedtalks.talks.dto.CreateTalkDto;
 import com.narciso.tedtalks.talks.dto.TalkDto;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,36 +26,75 @@ import org.springframework.util.Assert;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Locale;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TalkService {
     private final TalkDao talkDao;
     private final SpeakerService speakerService;
-    private final DateTimeFormatter inputDateFormatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+    private final ApplicationEventPublisher eventPublisher;
     private static final DateTimeFormatter CREATE_DTO_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
 
     @Transactional
-    public void saveIfNotExists(CsvRecord rec, Long speakerId, int views, int likes) {
-        YearMonth ym = YearMonth.parse(rec.getDate(), inputDateFormatter);
+    public boolean saveIfNotExists(CsvRecord rec, YearMonth ym, Long speakerId, int views, int likes) {
         boolean exists = talkDao.findByTitleAndSpeakerAndDate(
                 rec.getTitle(), speakerId, ym
         ).isPresent();
-        if (!exists) {
-            Assert.notNull(speakerId, "Speaker ID cannot be null for saving talk");
-            Assert.hasText(rec.getTitle(), "Talk title cannot be empty");
-
-            Talk t = Talk.builder()
-                    .title(rec.getTitle())
-                    .date(ym)
-                    .views(views)
-                    .likes(likes)
-                    .link(rec.getLink())
-                    .speakerId(speakerId)
-                    .build();
-            talkDao.create(t);
+        if (exists) {
+            return false;
         }
+        Assert.notNull(speakerId, "Speaker ID cannot be null for saving talk");
+        Assert.hasText(rec.getTitle(), "Talk title cannot be empty");
+
+        Talk t = Talk.builder()
+                .title(rec.getTitle())
+                .date(ym)
+                .views(views)
+                .likes(likes)
+                .link(rec.getLink())
+                .speakerId(speakerId)
+                .build();
+        talkDao.create(t);
+        eventPublisher.publishEvent(InfluenceDataChangedEvent.forTalks(List.of(), List.of(row(t))));
+        return true;
+    }
+
+    @Transactional
+    public List<Talk> createAll(List<Talk> talks) {
+        for (Talk t : talks) {
+            Assert.notNull(t.getSpeakerId(), "Speaker ID cannot be null for saving talk");
+            Assert.hasText(t.getTitle(), "Talk title cannot be empty");
+        }
+        List<Talk> created = talkDao.createAll(talks);
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(InfluenceDataChangedEvent.forTalks(List.of(),
+                    created.stream().map(TalkService::row).toList()));
+        }
+        return created;
+    }
+
+    /**
+     * Inserts the talks, or refreshes views/likes of those that already exist, in set-based batches.
+     */
+    @Transactional
+    public void upsertAll(List<Talk> talks) {
+        for (Talk t : talks) {
+            Assert.notNull(t.getSpeakerId(), "Speaker ID cannot be null for saving talk");
+            Assert.hasText(t.getTitle(), "Talk title cannot be empty");
+        }
+        talkDao.mergeAll(talks);
+        if (!talks.isEmpty()) {
+            // which talks the merge matched, and what they held before, is only known to the database
+            eventPublisher.publishEvent(InfluenceDataChangedEvent.forYears(years(talks)));
+            eventPublisher.publishEvent(StoredTalksChangedEvent.forYears(years(talks), true));
+        }
+    }
+
+    public LongLongHashMap findAllFingerprints() {
+        return talkDao.findAllFingerprints();
     }
 
     @Transactional
@@ -89,7 +135,14 @@ public class TalkService {
                 .speakerId(finalSpeakerId)
                 .build();
 
-        Talk createdTalkDomain = talkDao.create(talkToCreate);
+        assertNotDuplicate(talkToCreate, null);
+        Talk createdTalkDomain;
+        try {
+            createdTalkDomain = talkDao.create(talkToCreate);
+        } catch (DuplicateKeyException e) {
+            throw duplicate(talkToCreate);
+        }
+        eventPublisher.publishEvent(InfluenceDataChangedEvent.forTalks(List.of(), List.of(row(createdTalkDomain))));
 
         return findById(createdTalkDomain.getId());
     }
@@ -118,6 +171,11 @@ public class TalkService {
 
         speakerService.findById(talk.getSpeakerId());
 
+        TalkRow previous = row(existingTalkDomain);
+        int previousYear = existingTalkDomain.getDate().getYear();
+        boolean sameTalk = existingTalkDomain.getTitle().equals(talk.getTitle())
+                && existingTalkDomain.getDate().equals(talk.getDate())
+                && existingTalkDomain.getSpeakerId().equals(talk.getSpeakerId());
         existingTalkDomain.setTitle(talk.getTitle());
         existingTalkDomain.setDate(talk.getDate());
         existingTalkDomain.setViews(talk.getViews());
@@ -125,7 +183,14 @@ public class TalkService {
         existingTalkDomain.setLink(talk.getLink());
         existingTalkDomain.setSpeakerId(talk.getSpeakerId());
 
-        talkDao.update(existingTalkDomain);
+        assertNotDuplicate(existingTalkDomain, id);
+        try {
+            talkDao.update(existingTalkDomain);
+        } catch (DuplicateKeyException e) {
+            throw duplicate(existingTalkDomain);
+        }
+        eventPublisher.publishEvent(InfluenceDataChangedEvent.forTalks(List.of(previous), List.of(row(existingTalkDomain))));
+        eventPublisher.publishEvent(StoredTalksChangedEvent.forYears(List.of(previousYear, talk.getDate().getYear()), sameTalk));
 
         return findById(id);
     }
@@ -133,9 +198,34 @@ public class TalkService {
     @Transactional
     public void delete(Long id) {
         Assert.notNull(id, "Talk ID for delete cannot be null");
-        findById(id);
+        TalkDto existing = findById(id);
 
         talkDao.delete(id);
+        eventPublisher.publishEvent(InfluenceDataChangedEvent.forTalks(List.of(new TalkRow(id, existing.getSpeakerId(),
+                existing.getDate().getYear(), existing.getViews(), existing.getLikes())), List.of()));
+        eventPublisher.publishEvent(StoredTalksChangedEvent.forYears(Set.of(existing.getDate().getYear()), false));
+    }
+
+    // ux_talks_title_speaker_date; the DuplicateKeyException catch covers a concurrent write between check and write
+    private void assertNotDuplicate(Talk talk, Long ownId) {
+        talkDao.findByTitleAndSpeakerAndDate(talk.getTitle(), talk.getSpeakerId(), talk.getDate())
+                .filter(existing -> !existing.getId().equals(ownId))
+                .ifPresent(existing -> {
+                    throw duplicate(talk);
+                });
+    }
+
+    private DuplicateTalkException duplicate(Talk talk) {
+        return new DuplicateTalkException("A talk titled '" + talk.getTitle() + "' by speaker " + talk.getSpeakerId()
+                + " already exists for " + talk.getDate());
+    }
+
+    private static TalkRow row(Talk talk) {
+        return new TalkRow(talk.getId(), talk.getSpeakerId(), talk.getDate().getYear(), talk.getViews(), talk.getLikes());
+    }
+
+    private Set<Integer> years(List<Talk> talks) {
+        return talks.stream().map(t -> t.getDate().getYear()).collect(Collectors.toSet());
     }
 
 
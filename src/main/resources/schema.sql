@@ -10,5 +10,43 @@ CREATE TABLE talks (
   likes BIGINT NOT NULL,
   link VARCHAR(1000),
   speaker_id BIGINT NOT NULL,
+  talk_year INT GENERATED ALWAYS AS (CAST(SUBSTRING(date, 1, 4) AS INT)),
+  talk_month INT GENERATED ALWAYS AS (CAST(SUBSTRING(date, 6, 2) AS INT)),
   CONSTRAINT fk_speaker FOREIGN KEY (speaker_id) REFERENCES speakers(id)
 );
+CREATE UNIQUE INDEX ux_talks_title_speaker_date ON talks (title, speaker_id, date);
+CREATE INDEX ix_talks_year_month ON talks (talk_year, talk_month);
+CREATE TABLE imported_files (
+  content_hash VARCHAR(64) PRIMARY KEY,
+  file_name VARCHAR(500),
+  imported_at TIMESTAMP NOT NULL,
+  imported_count BIGINT NOT NULL,
+  error_count BIGINT NOT NULL,
+  mode VARCHAR(10) NOT NULL,
+  first_year INT,
+  last_year INT
+);
+CREATE TABLE import_jobs (
+  id VARCHAR(36) PRIMARY KEY,
+  file_name VARCHAR(500),
+  source VARCHAR(1000) NOT NULL,
+  spooled BOOLEAN NOT NULL,
+  force_import BOOLEAN NOT NULL,
+  mode VARCHAR(10) NOT NULL,
+  errors_file VARCHAR(1000) NOT NULL,
+  status VARCHAR(10) NOT NULL,
+  submitted_at TIMESTAMP NOT NULL,
+  checkpoint_line INT NOT NULL,
+  rows_imported BIGINT NOT NULL,
+  failure_message VARCHAR(1000)
+);
+CREATE TABLE speaker_year_stats (
+  speaker_id BIGINT NOT NULL,
+  talk_year INT NOT NULL,
+  total_views BIGINT NOT NULL,
+  total_likes BIGINT NOT NULL,
+  talk_count BIGINT NOT NULL,
+  PRIMARY KEY (speaker_id, talk_year),
+  CONSTRAINT fk_stats_speaker FOREIGN KEY (speaker_id) REFERENCES speakers(id) ON DELETE CASCADE
+);
+CREATE INDEX ix_speaker_year_stats_year ON speaker_year_stats (talk_year);
@@ -0,0 +1,318 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.config.InfluenceProperties;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent.TalkRow;
+import com.narciso.tedtalks.speakers.dto.SpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.strategy.WeightedStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarInfluenceEngineTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private ColumnarInfluenceEngine engine;
+
+    // talk id, speaker id, year, views, likes; ordered by year and speaker like the engine's query
+    private final List<long[]> talks = new ArrayList<>();
+    private final Map<Long, String> speakers = new TreeMap<>();
+    private final List<String> talkQueries = new ArrayList<>();
+    private final List<Collection<?>> nameLookups = new ArrayList<>();
+    private long nextTalkId = 1;
+    // holds the next talks query, once it has read its rows, until released
+    private final AtomicBoolean holdNextLoad = new AtomicBoolean();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        engine = new ColumnarInfluenceEngine(jdbcTemplate, new InfluenceProperties());
+        addSpeakers(3);
+        addTalk(1, 2021, 100, 10);
+        addTalk(1, 2021, 50, 5);
+        addTalk(2, 2021, 400, 40);
+        addTalk(1, 2022, 1000, 100);
+        addTalk(3, 2022, 10, 1);
+
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long id : speakers.keySet()) {
+                handler.processRow(speakerRow(id));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        lenient().doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            SqlParameterSource params = invocation.getArgument(1);
+            RowCallbackHandler handler = invocation.getArgument(2);
+            if (sql.contains("FROM speakers")) {
+                Collection<?> ids = (Collection<?>) params.getValue("ids");
+                nameLookups.add(ids);
+                for (long id : speakers.keySet()) {
+                    if (ids.contains(id)) {
+                        handler.processRow(speakerRow(id));
+                    }
+                }
+                return null;
+            }
+            talkQueries.add(sql);
+            for (long[] talk : talks) {
+                if (sql.contains(":years") && !((Collection<?>) params.getValue("years")).contains((int) talk[2])) {
+                    continue;
+                }
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("id")).thenReturn(talk[0]);
+                when(rs.getLong("speaker_id")).thenReturn(talk[1]);
+                when(rs.getInt("talk_year")).thenReturn((int) talk[2]);
+                when(rs.getLong("views")).thenReturn(talk[3]);
+                when(rs.getLong("likes")).thenReturn(talk[4]);
+                handler.processRow(rs);
+            }
+            if (holdNextLoad.getAndSet(false)) {
+                loaded.countDown();
+                assertThat(released.await(10, TimeUnit.SECONDS)).isTrue();
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("totals should sum the talks of each speaker in the requested year")
+    void totals_SumsTalksOfYear() {
+        SpeakerTotals totals = engine.totals(Optional.of(2021));
+
+        assertThat(totals.size()).isEqualTo(2);
+        assertThat(totals.rank(new WeightedStrategy(1, 1)).toList())
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getName,
+                        SpeakerInfluenceDto::getTotalViews, SpeakerInfluenceDto::getTotalLikes)
+                .containsExactly(tuple(2L, "Speaker 2", 400, 40), tuple(1L, "Speaker 1", 150, 15));
+    }
+
+    @Test
+    @DisplayName("totals without a year should merge the sums of every year")
+    void totals_MergesAllYears() {
+        List<SpeakerInfluenceDto> ranking = engine.totals(Optional.empty()).rank(new WeightedStrategy(1, 1)).toList();
+
+        assertThat(ranking)
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getTotalViews, SpeakerInfluenceDto::getTotalLikes)
+                .containsExactly(tuple(1L, 1150, 115), tuple(2L, 400, 40), tuple(3L, 10, 1));
+        assertThat(engine.totals(Optional.of(2020)).size()).isZero();
+    }
+
+    @Test
+    @DisplayName("totals should load the talks once and reload only the years of a committed change")
+    void totals_ReloadsOnlyChangedYears() {
+        engine.totals(Optional.empty());
+        engine.totals(Optional.of(2021));
+        assertThat(talkQueries).singleElement().asString().doesNotContain(":years");
+
+        addTalk(3, 2022, 5000, 500);
+        // a change not yet reported is not seen
+        assertThat(engine.totals(Optional.of(2022)).top(new WeightedStrategy(1, 1), 1).toList().get(0).getSpeakerId())
+                .isEqualTo(1L);
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forYears(List.of(2022)));
+
+        List<SpeakerInfluenceDto> top = engine.totals(Optional.empty()).top(new WeightedStrategy(1, 1), 2).toList();
+
+        assertThat(talkQueries).hasSize(2).last().asString().contains(":years");
+        assertThat(nameLookups).isEmpty();
+        assertThat(top)
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getTotalViews)
+                .containsExactly(tuple(3L, 5010), tuple(1L, 1150));
+    }
+
+    @Test
+    @DisplayName("totals should split a year's talks at speaker boundaries and sum them like a single scan")
+    void totals_SplitsLargeYearsAtSpeakerBoundaries() {
+        InfluenceProperties influenceProperties = new InfluenceProperties();
+        influenceProperties.setColumnarSplitThreshold(4);
+        engine = new ColumnarInfluenceEngine(jdbcTemplate, influenceProperties);
+        talks.clear();
+        addSpeakers(40);
+        Map<Long, long[]> expected = new HashMap<>();
+        for (int year = 2020; year <= 2022; year++) {
+            for (long speakerId = 1; speakerId <= 40; speakerId++) {
+                // speaker 20 holds a long run across the middle of every year, the others a few talks each
+                long count = speakerId == 20 ? 50 : (speakerId + year) % 4;
+                for (int talk = 0; talk < count; talk++) {
+                    long views = speakerId * 10 + talk + year % 10;
+                    addTalk(speakerId, year, views, talk + 1);
+                    long[] sums = expected.computeIfAbsent(speakerId, id -> new long[2]);
+                    sums[0] += views;
+                    sums[1] += talk + 1;
+                }
+            }
+        }
+
+        List<SpeakerInfluenceDto> ranking = engine.totals(Optional.empty()).rank(new WeightedStrategy(1, 1)).toList();
+
+        assertThat(ranking).hasSize(expected.size());
+        assertThat(ranking).allSatisfy(speaker -> {
+            long[] sums = expected.get(speaker.getSpeakerId());
+            assertThat(speaker.getTotalViews()).isEqualTo((int) sums[0]);
+            assertThat(speaker.getTotalLikes()).isEqualTo((int) sums[1]);
+            assertThat(speaker.getName()).isEqualTo("Speaker " + speaker.getSpeakerId());
+        });
+        assertThat(engine.totals(Optional.of(2021)).rank(new WeightedStrategy(1, 1)).toList())
+                .extracting(SpeakerInfluenceDto::getSpeakerId)
+                .doesNotHaveDuplicates()
+                .contains(20L);
+    }
+
+    @Test
+    @DisplayName("speakerBoundary should move a split point past the speaker it falls on")
+    void speakerBoundary_SkipsToNextSpeaker() {
+        ColumnarInfluenceEngine.TalkColumns columns = new ColumnarInfluenceEngine.TalkColumns(
+                new long[6], new long[]{1, 2, 2, 2, 2, 3}, new long[6], new long[6]);
+
+        assertThat(columns.speakerBoundary(3)).isEqualTo(5);
+        assertThat(columns.speakerBoundary(1)).isEqualTo(1);
+        assertThat(columns.speakerBoundary(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("a read during a reload should wait for it, and a change reported meanwhile should stay stale")
+    void totals_WaitsForReloadAndKeepsChangesReportedDuringIt() throws Exception {
+        engine.totals(Optional.empty());
+        addTalk(3, 2022, 5000, 500);
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forYears(List.of(2022)));
+        holdNextLoad.set(true);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<SpeakerTotals> reloading = CompletableFuture.supplyAsync(() -> engine.totals(Optional.of(2022)), readers);
+            assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture<SpeakerTotals> waiting = CompletableFuture.supplyAsync(() -> engine.totals(Optional.of(2022)), readers);
+            await().during(Duration.ofMillis(200)).atMost(Duration.ofSeconds(5)).until(() -> !waiting.isDone());
+            // committed after the reload read its rows
+            addTalk(2, 2022, 7000, 700);
+            engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forYears(List.of(2022)));
+            released.countDown();
+
+            assertThat(reloading.get(10, TimeUnit.SECONDS).rank(new WeightedStrategy(1, 1)).toList())
+                    .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getTotalViews)
+                    .containsExactly(tuple(3L, 5010), tuple(1L, 1000));
+            assertThat(waiting.get(10, TimeUnit.SECONDS).rank(new WeightedStrategy(1, 1)).toList())
+                    .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getTotalViews)
+                    .containsExactly(tuple(2L, 7000), tuple(3L, 5010), tuple(1L, 1000));
+        } finally {
+            released.countDown();
+            readers.shutdownNow();
+        }
+        assertThat(talkQueries).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("totals should apply reported talk rows without reading the talks again")
+    void totals_AppliesReportedTalkRows() {
+        engine.totals(Optional.empty());
+        addSpeakers(4);
+        TalkRow created = addTalk(4, 2021, 300, 30);
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forTalks(List.of(), List.of(created)));
+        // speaker 1's 2021 talk of 100 views moves to 2022 with 200
+        TalkRow moved = new TalkRow(1, 1, 2022, 200, 20);
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forTalks(List.of(new TalkRow(1, 1, 2021, 100, 10)), List.of(moved)));
+        // speaker 3's only talk is deleted
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forTalks(List.of(new TalkRow(5, 3, 2022, 10, 1)), List.of()));
+
+        List<SpeakerInfluenceDto> ranking = engine.totals(Optional.empty()).rank(new WeightedStrategy(1, 1)).toList();
+
+        assertThat(ranking)
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getName,
+                        SpeakerInfluenceDto::getTotalViews, SpeakerInfluenceDto::getTotalLikes)
+                .containsExactly(tuple(1L, "Speaker 1", 1250, 125), tuple(2L, "Speaker 2", 400, 40),
+                        tuple(4L, "Speaker 4", 300, 30));
+        assertThat(engine.totals(Optional.of(2021)).rank(new WeightedStrategy(1, 1)).toList())
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getTotalViews)
+                .containsExactly(tuple(2L, 400), tuple(4L, 300), tuple(1L, 50));
+        assertThat(talkQueries).hasSize(1);
+        // only the speaker new to the columns is looked up
+        assertThat(nameLookups).containsExactly(Set.of(4L));
+    }
+
+    @Test
+    @DisplayName("a talk row already read by the load should not be counted twice")
+    void totals_AppliesRowsReadByTheLoadOnce() {
+        TalkRow created = addTalk(2, 2022, 700, 70);
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forTalks(List.of(), List.of(created)));
+
+        assertThat(engine.totals(Optional.of(2022)).rank(new WeightedStrategy(1, 1)).toList())
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getTotalViews)
+                .containsExactly(tuple(1L, 1000), tuple(2L, 700), tuple(3L, 10));
+    }
+
+    @Test
+    @DisplayName("a renamed speaker should be looked up alone, and a deleted one forgotten")
+    void totals_LooksUpOnlyRenamedSpeakers() {
+        engine.totals(Optional.empty());
+        speakers.put(2L, "Renamed");
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forSpeakers(Set.of(2L)));
+
+        assertThat(engine.totals(Optional.of(2021)).rank(new WeightedStrategy(1, 1)).toList())
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getName)
+                .containsExactly(tuple(2L, "Renamed"), tuple(1L, "Speaker 1"));
+        assertThat(talkQueries).hasSize(1);
+        assertThat(nameLookups).containsExactly(Set.of(2L));
+
+        speakers.remove(3L);
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forSpeakers(Set.of(3L)));
+
+        assertThat(engine.totals(Optional.of(2022)).rank(new WeightedStrategy(1, 1)).toList())
+                .extracting(SpeakerInfluenceDto::getSpeakerId, SpeakerInfluenceDto::getName)
+                .containsExactly(tuple(1L, "Speaker 1"), tuple(3L, null));
+    }
+
+    private void addSpeakers(long count) {
+        for (long id = speakers.size() + 1; id <= count; id++) {
+            speakers.put(id, "Speaker " + id);
+        }
+    }
+
+    private TalkRow addTalk(long speakerId, int year, long views, long likes) {
+        long talkId = nextTalkId++;
+        talks.add(new long[]{talkId, speakerId, year, views, likes});
+        talks.sort((a, b) -> a[2] != b[2] ? Long.compare(a[2], b[2]) : Long.compare(a[1], b[1]));
+        return new TalkRow(talkId, speakerId, year, views, likes);
+    }
+
+    private ResultSet speakerRow(long id) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("name")).thenReturn(speakers.get(id));
+        return rs;
+    }
+}
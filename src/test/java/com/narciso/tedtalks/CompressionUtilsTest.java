@@ -0,0 +1,68 @@
+package com.narciso.tedtalks.common.utils;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionUtilsTest {
+
+    private static final String CSV = "author,title,views,likes,date,link\nJohn Doe,Talk 1,100,50,January 2023,x\n";
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] zstd(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream zs = new ZstdOutputStream(out)) {
+            zs.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private String read(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should detect gzip and zstd from their magic bytes")
+    void decompress_SniffsMagicBytes() throws IOException {
+        byte[] plain = CSV.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(read(CompressionUtils.decompress(new ByteArrayInputStream(gzip(plain)), null))).isEqualTo(CSV);
+        assertThat(read(CompressionUtils.decompress(new ByteArrayInputStream(zstd(plain)), "application/octet-stream")))
+                .isEqualTo(CSV);
+        assertThat(read(CompressionUtils.decompress(new ByteArrayInputStream(plain), "text/csv"))).isEqualTo(CSV);
+    }
+
+    @Test
+    @DisplayName("Should honour the declared content type")
+    void fromContentType() {
+        assertThat(CompressionUtils.fromContentType("application/x-gzip")).isEqualTo(CompressionUtils.Compression.GZIP);
+        assertThat(CompressionUtils.fromContentType("application/zstd")).isEqualTo(CompressionUtils.Compression.ZSTD);
+        assertThat(CompressionUtils.fromContentType("text/csv")).isEqualTo(CompressionUtils.Compression.NONE);
+        assertThat(CompressionUtils.fromContentType(null)).isEqualTo(CompressionUtils.Compression.NONE);
+    }
+
+    @Test
+    @DisplayName("Should pass short plain input through untouched")
+    void decompress_ShortInput() throws IOException {
+        assertThat(read(CompressionUtils.decompress(new ByteArrayInputStream(new byte[]{0x1F}), null)))
+                .isEqualTo("\u001F");
+        assertThat(read(CompressionUtils.decompress(new ByteArrayInputStream(new byte[0]), null))).isEmpty();
+    }
+}
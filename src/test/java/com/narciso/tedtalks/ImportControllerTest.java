@@ -0,0 +1,125 @@
+package com.narciso.tedtalks.imports.controller;
+
+import com.narciso.tedtalks.imports.domain.ImportJobStatus;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.dto.ImportJobDto;
+import com.narciso.tedtalks.imports.service.ImportJobService;
+import com.narciso.tedtalks.imports.service.ImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImportController.class)
+class ImportControllerTest {
+    private static final String CSV = "author,title,views,likes,date,link\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImportService importService;
+
+    @MockitoBean
+    private ImportJobService importJobService;
+
+    @Test
+    @DisplayName("A raw CSV body should honour dryRun")
+    void rawBody_DryRun() throws Exception {
+        ImportResult result = new ImportResult(0, List.of());
+        result.setDryRun(true);
+        when(importService.dryRun(any(InputStream.class), eq("text/csv"), eq(ImportMode.INSERT))).thenReturn(result);
+
+        mockMvc.perform(post("/api/import/talks").param("dryRun", "true").contentType("text/csv").content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dryRun").value(true));
+    }
+
+    @Test
+    @DisplayName("A raw CSV body should honour async and force")
+    void rawBody_AsyncWithForce() throws Exception {
+        when(importJobService.submit(any(InputStream.class), eq(true), eq(ImportMode.UPSERT)))
+                .thenReturn(ImportJobDto.builder().id("job-1").status(ImportJobStatus.QUEUED).build());
+
+        mockMvc.perform(post("/api/import/talks").param("async", "true").param("force", "true")
+                        .param("mode", "UPSERT").contentType("text/csv").content(CSV))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"));
+    }
+
+    @Test
+    @DisplayName("A synchronous raw CSV body should be streamed into the import, with or without force")
+    void rawBody_Streams() throws Exception {
+        when(importService.importCsv(any(InputStream.class), eq("text/csv"), eq(ImportMode.INSERT)))
+                .thenReturn(new ImportResult(1, List.of()));
+
+        mockMvc.perform(post("/api/import/talks").param("force", "true").contentType("text/csv").content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(1));
+        mockMvc.perform(post("/api/import/talks").contentType("text/csv").content(CSV))
+                .andExpect(status().isOk());
+
+        verify(importService, times(2)).importCsv(any(InputStream.class), eq("text/csv"), eq(ImportMode.INSERT));
+        verifyNoInteractions(importJobService);
+    }
+
+    @Test
+    @DisplayName("An import that cannot be read should answer 400 on both content types")
+    void unreadableImport_IsBadRequest() throws Exception {
+        when(importService.importCsv(any(InputStream.class), eq("text/csv"), eq(ImportMode.INSERT)))
+                .thenThrow(new IllegalStateException("Malformed CSV"));
+        when(importService.importCsv(any(MultipartFile.class), eq(false), eq(ImportMode.INSERT)))
+                .thenThrow(new IllegalStateException("Malformed CSV"));
+
+        mockMvc.perform(post("/api/import/talks").contentType("text/csv").content(CSV))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.importedCount").value(0));
+        mockMvc.perform(multipart("/api/import/talks").file(csvFile()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.importedCount").value(0));
+    }
+
+    @Test
+    @DisplayName("An uploaded file should honour dryRun")
+    void multipart_DryRun() throws Exception {
+        when(importService.dryRun(any(MultipartFile.class), eq(ImportMode.INSERT)))
+                .thenReturn(new ImportResult(0, List.of()));
+
+        mockMvc.perform(multipart("/api/import/talks").file(csvFile()).param("dryRun", "true"))
+                .andExpect(status().isOk());
+
+        verify(importService, never()).importCsv(any(MultipartFile.class), anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("dryRun and async together should be rejected on both content types")
+    void dryRunWithAsync_IsRejected() throws Exception {
+        mockMvc.perform(multipart("/api/import/talks").file(csvFile()).param("dryRun", "true").param("async", "true"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/import/talks").param("dryRun", "true").param("async", "true")
+                        .contentType("text/csv").content(CSV))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(importService, importJobService);
+    }
+
+    private MockMultipartFile csvFile() {
+        return new MockMultipartFile("file", "talks.csv", "text/csv", CSV.getBytes());
+    }
+}
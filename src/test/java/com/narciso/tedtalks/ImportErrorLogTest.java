@@ -0,0 +1,81 @@
+package com.narciso.tedtalks.imports.domain;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.common.errors.ImportErrorMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportErrorLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should count every error, keep a capped sample and spill all of them as NDJSON")
+    void add_SpillsEveryError() throws IOException {
+        Path spill = tempDir.resolve("errors.ndjson");
+        ImportErrorLog log = new ImportErrorLog(2, spill);
+
+        log.add(new ImportError(2, ErrorType.NUMBER_PARSE_ERROR, "views", "1x", ImportErrorMessage.NOT_DIGITS));
+        log.add(new ImportError(3, ErrorType.DATE_PARSE_ERROR, "date", "Someday", ImportErrorMessage.DATE_FORMAT));
+        log.add(new ImportError(4, ErrorType.NUMBER_PARSE_ERROR, "likes", "", ImportErrorMessage.EMPTY_FIELD));
+        log.close();
+
+        assertThat(log.getCount()).isEqualTo(3);
+        assertThat(log.getSample()).extracting(ImportError::getLine).containsExactly(2, 3);
+        assertThat(log.getCounts()).isEqualTo(Map.of(ErrorType.NUMBER_PARSE_ERROR, 2L, ErrorType.DATE_PARSE_ERROR, 1L));
+
+        List<String> lines = Files.readAllLines(spill);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("{\"line\":2,\"type\":\"NUMBER_PARSE_ERROR\",\"field\":\"views\",\"value\":\"1x\","
+                + "\"message\":\"Invalid format for 'views': '1x'. Only digits are allowed.\"}");
+    }
+
+    @Test
+    @DisplayName("Should keep appending to the spill file after being closed")
+    void add_AfterClose() throws IOException {
+        Path spill = tempDir.resolve("errors.ndjson");
+        ImportErrorLog log = new ImportErrorLog(10, spill);
+
+        log.add(new ImportError(2, ErrorType.GENERIC_ERROR, null, null, "first"));
+        log.close();
+        log.add(new ImportError(3, ErrorType.GENERIC_ERROR, null, null, "second"));
+        log.close();
+
+        assertThat(Files.readAllLines(spill)).hasSize(2);
+        assertThat(log.toResult(0).getErrors()).extracting(ImportError::getMessage).containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("Should restore the errors up to a checkpoint and drop later and torn lines from the spill file")
+    void restore_KeepsErrorsUpToCheckpoint() throws IOException {
+        Path spill = tempDir.resolve("errors.ndjson");
+        ImportErrorLog log = new ImportErrorLog(10, spill);
+        log.add(new ImportError(2, ErrorType.NUMBER_PARSE_ERROR, "views", "1x", ImportErrorMessage.NOT_DIGITS));
+        log.add(new ImportError(4, ErrorType.GENERIC_ERROR, null, null, "kept"));
+        log.add(new ImportError(8, ErrorType.GENERIC_ERROR, null, null, "after the checkpoint"));
+        log.close();
+        Files.writeString(spill, "{\"line\":9,\"ty", StandardOpenOption.APPEND);
+
+        ImportErrorLog restored = ImportErrorLog.restore(10, spill, 5);
+        restored.add(new ImportError(6, ErrorType.GENERIC_ERROR, null, null, "resumed"));
+        restored.close();
+
+        assertThat(restored.getCount()).isEqualTo(3);
+        assertThat(restored.getCounts()).isEqualTo(Map.of(ErrorType.NUMBER_PARSE_ERROR, 1L, ErrorType.GENERIC_ERROR, 2L));
+        assertThat(restored.getSample()).extracting(ImportError::getMessage)
+                .containsExactly("Invalid format for 'views': '1x'. Only digits are allowed.", "kept", "resumed");
+        assertThat(Files.readAllLines(spill)).hasSize(3);
+    }
+}
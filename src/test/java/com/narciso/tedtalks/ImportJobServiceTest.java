@@ -0,0 +1,238 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.common.exception.ImportJobStateException;
+import com.narciso.tedtalks.imports.dao.ImportJobDao;
+import com.narciso.tedtalks.imports.dao.ImportedFileDao;
+import com.narciso.tedtalks.imports.domain.ImportCheckpoint;
+import com.narciso.tedtalks.imports.domain.ImportJobState;
+import com.narciso.tedtalks.imports.domain.ImportJobStatus;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportProgress;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.dto.ImportJobDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private ImportService importService;
+
+    @Mock
+    private ImportedFileDao importedFileDao;
+
+    @Mock
+    private ImportJobDao importJobDao;
+
+    @TempDir
+    Path tempDir;
+
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = new ImportJobService(importService, new ImportHistoryService(importedFileDao), new ImportProperties(),
+                importJobDao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    private MockMultipartFile createMockCsvFile() {
+        return new MockMultipartFile("file", "test.csv", "text/csv",
+                "author,title,views,likes,date,link\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Submitted job runs in the background and exposes its result")
+    void submit_CompletesJob() throws IOException {
+        ImportResult importResult = new ImportResult(3, List.of());
+        when(importService.importCsv(any(InputStream.class), any(ImportProgress.class), any(ImportCheckpoint.class), any(ImportMode.class))).thenAnswer(invocation -> {
+            ImportProgress progress = invocation.getArgument(1);
+            progress.addRead(3);
+            progress.addImported(3);
+            return importResult;
+        });
+
+        ImportJobDto submitted = importJobService.submit(createMockCsvFile());
+
+        assertThat(submitted.getId()).isNotBlank();
+        assertThat(submitted.getFileName()).isEqualTo("test.csv");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(submitted.getId()).getStatus()).isEqualTo(ImportJobStatus.COMPLETED));
+
+        ImportJobDto job = importJobService.getJob(submitted.getId());
+        assertThat(job.getRowsRead()).isEqualTo(3);
+        assertThat(job.getRowsImported()).isEqualTo(3);
+        assertThat(job.getResult()).isEqualTo(importResult);
+        assertThat(importJobService.getErrorsFile(submitted.getId())).exists();
+    }
+
+    @Test
+    @DisplayName("Failed job is reported with its failure message")
+    void submit_FailsJob() throws IOException {
+        when(importService.importCsv(any(InputStream.class), any(ImportProgress.class), any(ImportCheckpoint.class), any(ImportMode.class)))
+                .thenThrow(new IllegalStateException("Import was interrupted"));
+
+        ImportJobDto submitted = importJobService.submit(createMockCsvFile());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(submitted.getId()).getStatus()).isEqualTo(ImportJobStatus.FAILED));
+        assertThat(importJobService.getJob(submitted.getId()).getFailureMessage()).isEqualTo("Import was interrupted");
+    }
+
+    @Test
+    @DisplayName("Failed job resumes from its last checkpoint")
+    void resume_ContinuesFromCheckpoint() throws IOException {
+        ImportResult importResult = new ImportResult(7, List.of());
+        when(importService.importCsv(any(InputStream.class), any(ImportProgress.class), any(ImportCheckpoint.class), any(ImportMode.class)))
+                .thenAnswer(invocation -> {
+                    ImportCheckpoint checkpoint = invocation.getArgument(2);
+                    checkpoint.advance(5, 4);
+                    throw new IllegalStateException("Connection lost");
+                })
+                .thenAnswer(invocation -> {
+                    ImportCheckpoint checkpoint = invocation.getArgument(2);
+                    assertThat(checkpoint.getLine()).isEqualTo(5);
+                    return importResult;
+                });
+
+        ImportJobDto submitted = importJobService.submit(createMockCsvFile());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(submitted.getId()).getStatus()).isEqualTo(ImportJobStatus.FAILED));
+        assertThat(importJobService.getJob(submitted.getId()).getCheckpointLine()).isEqualTo(5);
+        verify(importJobDao).saveCheckpoint(submitted.getId(), 5, 4);
+
+        importJobService.resume(submitted.getId());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(submitted.getId()).getStatus()).isEqualTo(ImportJobStatus.COMPLETED));
+        assertThat(importJobService.getJob(submitted.getId()).getResult()).isEqualTo(importResult);
+        assertThat(importJobService.getJob(submitted.getId()).getFailureMessage()).isNull();
+        verify(importJobDao).delete(submitted.getId());
+    }
+
+    @Test
+    @DisplayName("A job left unfinished by a restart comes back failed and resumes from its stored checkpoint")
+    void restore_ResumesInterruptedJob() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("spool.csv"), "author,title,views,likes,date,link\n");
+        Path errors = Files.writeString(tempDir.resolve("errors.ndjson"),
+                "{\"line\":3,\"type\":\"GENERIC_ERROR\",\"message\":\"bad\"}\n"
+                        + "{\"line\":9,\"type\":\"GENERIC_ERROR\",\"message\":\"after the checkpoint\"}\n");
+        when(importJobDao.findUnfinished()).thenReturn(List.of(ImportJobState.builder()
+                .id("job-1").fileName("talks.csv").source(source.toString()).spooled(true).mode(ImportMode.INSERT)
+                .errorsFile(errors.toString()).status(ImportJobStatus.RUNNING).submittedAt(Instant.now())
+                .checkpointLine(5).rowsImported(3).build()));
+        ImportResult importResult = new ImportResult(7, List.of());
+        when(importService.importCsv(any(InputStream.class), any(ImportProgress.class), any(ImportCheckpoint.class), any(ImportMode.class)))
+                .thenAnswer(invocation -> {
+                    ImportCheckpoint checkpoint = invocation.getArgument(2);
+                    assertThat(checkpoint.getLine()).isEqualTo(5);
+                    assertThat(checkpoint.getErrors().getCount()).isEqualTo(1);
+                    return importResult;
+                });
+
+        importJobService.restore();
+
+        ImportJobDto restored = importJobService.getJob("job-1");
+        assertThat(restored.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(restored.getFailureMessage()).isEqualTo("Interrupted by a restart");
+        assertThat(restored.getCheckpointLine()).isEqualTo(5);
+        assertThat(restored.getRowsRead()).isEqualTo(4);
+        assertThat(restored.getRowsImported()).isEqualTo(3);
+
+        importJobService.resume("job-1");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob("job-1").getStatus()).isEqualTo(ImportJobStatus.COMPLETED));
+        assertThat(importJobService.getJob("job-1").getResult()).isEqualTo(importResult);
+        verify(importJobDao).delete("job-1");
+    }
+
+    @Test
+    @DisplayName("Completed job cannot be resumed")
+    void resume_WhenNotFailed() throws IOException {
+        when(importService.importCsv(any(InputStream.class), any(ImportProgress.class), any(ImportCheckpoint.class), any(ImportMode.class)))
+                .thenReturn(new ImportResult(0, List.of()));
+
+        ImportJobDto submitted = importJobService.submit(createMockCsvFile());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(submitted.getId()).getStatus()).isEqualTo(ImportJobStatus.COMPLETED));
+
+        assertThatThrownBy(() -> importJobService.resume(submitted.getId()))
+                .isInstanceOf(ImportJobStateException.class)
+                .hasMessage("Only failed import jobs can be resumed: " + submitted.getId());
+    }
+
+    @Test
+    @DisplayName("Over the retained limit the oldest finished jobs are evicted, never a resumed one")
+    void submit_EvictsOldestFinishedJobs() throws Exception {
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.setRetainedJobs(1);
+        importJobService.shutdown();
+        importJobService = new ImportJobService(importService, new ImportHistoryService(importedFileDao), importProperties,
+                importJobDao);
+        CountDownLatch release = new CountDownLatch(1);
+        when(importService.importCsv(any(InputStream.class), any(ImportProgress.class), any(ImportCheckpoint.class), any(ImportMode.class)))
+                .thenReturn(new ImportResult(0, List.of()))
+                .thenThrow(new IllegalStateException("Connection lost"))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new ImportResult(0, List.of());
+                });
+
+        ImportJobDto completed = importJobService.submit(createMockCsvFile());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(completed.getId()).getStatus()).isEqualTo(ImportJobStatus.COMPLETED));
+        ImportJobDto resumed = importJobService.submit(createMockCsvFile());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(importJobService.getJob(resumed.getId()).getStatus()).isEqualTo(ImportJobStatus.FAILED));
+        importJobService.resume(resumed.getId());
+
+        importJobService.submit(createMockCsvFile());
+        release.countDown();
+
+        assertThatThrownBy(() -> importJobService.getJob(completed.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(importJobService.getJob(resumed.getId())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Unknown job id is reported as not found")
+    void getJob_WhenNotExists() {
+        assertThatThrownBy(() -> importJobService.getJob("missing"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Import job not found: missing");
+    }
+}
@@ -2,27 +2,57 @@ package com.narciso.tedtalks.imports.service;
 
 import com.narciso.tedtalks.common.errors.ErrorType;
 import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
+import com.narciso.tedtalks.common.utils.LongLongHashMap;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.imports.dao.ImportedFileDao;
+import com.narciso.tedtalks.imports.domain.ImportCheckpoint;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportProgress;
 import com.narciso.tedtalks.imports.domain.ImportResult;
+import com.narciso.tedtalks.imports.domain.ImportedFile;
 import com.narciso.tedtalks.imports.dto.CsvRecord;
 import com.narciso.tedtalks.speakers.domain.Speaker;
 import com.narciso.tedtalks.speakers.service.SpeakerService;
+import com.narciso.tedtalks.talks.domain.StoredTalksChangedEvent;
+import com.narciso.tedtalks.talks.domain.Talk;
+import com.narciso.tedtalks.talks.domain.TalkFingerprint;
 import com.narciso.tedtalks.talks.service.TalkService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -36,23 +66,28 @@ class ImportServiceTest {
     @Mock
     private TalkService talkService;
 
-    @InjectMocks
+    @Mock
+    private ImportedFileDao importedFileDao;
+
+    @Spy
+    private ImportProperties importProperties = new ImportProperties();
+
+    private ImportPipeline importPipeline;
+
     private ImportService importService;
 
     @Captor
-    private ArgumentCaptor<CsvRecord> csvRecordCaptor;
-    @Captor
-    private ArgumentCaptor<Long> speakerIdCaptor;
-    @Captor
-    private ArgumentCaptor<Integer> viewsCaptor;
-    @Captor
-    private ArgumentCaptor<Integer> likesCaptor;
+    private ArgumentCaptor<List<Talk>> talksCaptor;
 
     private Speaker speakerJohn;
     private Speaker speakerJane;
 
     @BeforeEach
     void setUp() {
+        importPipeline = new ImportPipeline(new CsvRecordValidator(), importProperties);
+        importService = new ImportService(speakerService, talkService, importProperties, importPipeline,
+                TransactionOperations.withoutTransaction(), new ImportHistoryService(importedFileDao));
+
         speakerJohn = new Speaker();
         speakerJohn.setId(1L);
         speakerJohn.setName("John Doe");
@@ -60,6 +95,13 @@ class ImportServiceTest {
         speakerJane = new Speaker();
         speakerJane.setId(2L);
         speakerJane.setName("Jane Smith");
+
+        lenient().when(talkService.findAllFingerprints()).thenReturn(new LongLongHashMap());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importPipeline.shutdown();
     }
 
     private MockMultipartFile createMockCsvFile(String content) {
@@ -81,34 +123,53 @@ class ImportServiceTest {
             """;
         MultipartFile file = createMockCsvFile(csvContent);
 
-        when(speakerService.findOrCreate("John Doe")).thenReturn(speakerJohn);
-        when(speakerService.findOrCreate("Jane Smith")).thenReturn(speakerJane);
-        doNothing().when(talkService).saveIfNotExists(any(CsvRecord.class), anyLong(), anyInt(), anyInt());
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId(), "Jane Smith", speakerJane.getId()));
 
         ImportResult result = importService.importCsv(file);
 
         assertThat(result.getImportedCount()).isEqualTo(2);
         assertThat(result.getErrors()).isEmpty();
 
-        verify(talkService, times(2)).saveIfNotExists(
-                csvRecordCaptor.capture(),
-                speakerIdCaptor.capture(),
-                viewsCaptor.capture(),
-                likesCaptor.capture()
-        );
+        verify(talkService, times(1)).createAll(talksCaptor.capture());
+        List<Talk> talks = talksCaptor.getValue();
+        assertThat(talks).hasSize(2);
 
-        assertThat(csvRecordCaptor.getAllValues().get(0).getAuthor()).isEqualTo("John Doe");
-        assertThat(speakerIdCaptor.getAllValues().get(0)).isEqualTo(1L);
-        assertThat(viewsCaptor.getAllValues().get(0)).isEqualTo(100);
-        assertThat(likesCaptor.getAllValues().get(0)).isEqualTo(50);
+        assertThat(talks.get(0).getTitle()).isEqualTo("Talk 1");
+        assertThat(talks.get(0).getSpeakerId()).isEqualTo(1L);
+        assertThat(talks.get(0).getDate()).isEqualTo(YearMonth.of(2023, 1));
+        assertThat(talks.get(0).getViews()).isEqualTo(100);
+        assertThat(talks.get(0).getLikes()).isEqualTo(50);
 
-        assertThat(csvRecordCaptor.getAllValues().get(1).getAuthor()).isEqualTo("Jane Smith");
-        assertThat(speakerIdCaptor.getAllValues().get(1)).isEqualTo(2L);
-        assertThat(viewsCaptor.getAllValues().get(1)).isEqualTo(200);
-        assertThat(likesCaptor.getAllValues().get(1)).isEqualTo(100);
+        assertThat(talks.get(1).getTitle()).isEqualTo("Talk 2");
+        assertThat(talks.get(1).getSpeakerId()).isEqualTo(2L);
+        assertThat(talks.get(1).getViews()).isEqualTo(200);
+        assertThat(talks.get(1).getLikes()).isEqualTo(100);
 
-        verify(speakerService, times(1)).findOrCreate("John Doe");
-        verify(speakerService, times(1)).findOrCreate("Jane Smith");
+        verify(speakerService, times(1)).findAllIdsByName();
+        verify(speakerService, times(1)).createAll(Set.of("John Doe", "Jane Smith"));
+        verify(speakerService, never()).findOrCreate(anyString());
+    }
+
+    @Test
+    @DisplayName("Import reuses known speakers and only creates new ones")
+    void importCsvReusesKnownSpeakers() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            Jane Smith,Talk 2,200,100,February 2023,http://example.com/2
+            John Doe,Talk 3,300,150,March 2023,http://example.com/3
+            """;
+        MultipartFile file = createMockCsvFile(csvContent);
+
+        when(speakerService.findAllIdsByName()).thenReturn(new HashMap<>(Map.of("John Doe", speakerJohn.getId())));
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("Jane Smith", speakerJane.getId()));
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        verify(speakerService).createAll(Set.of("Jane Smith"));
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getSpeakerId).containsExactly(1L, 2L, 1L);
     }
 
     @Test
@@ -134,6 +195,26 @@ class ImportServiceTest {
         verifyNoInteractions(speakerService);
     }
 
+    @Test
+    @DisplayName("Import reports malformed and oversized numeric fields")
+    void importCsvWithMalformedAndOversizedNumbers() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,1 000,50,January 2023,http://example.com/1
+            Jane Smith,Talk 2,200,4031405795013456675,February 2023,http://example.com/2
+            """;
+        MultipartFile file = createMockCsvFile(csvContent);
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(0);
+        assertThat(result.getErrors()).containsExactly(
+                new ImportError(2, ErrorType.NUMBER_PARSE_ERROR, "views", "1 000", "Invalid format for 'views': '1 000'. Only digits are allowed."),
+                new ImportError(3, ErrorType.NUMBER_PARSE_ERROR, "likes", "4031405795013456675",
+                        "Value '4031405795013456675' for 'likes' is too large for an integer or cannot be parsed.")
+        );
+    }
+
     @Test
     @DisplayName("Import fails with invalid date format")
     void importCsvWithInvalidDates() throws IOException {
@@ -167,6 +248,7 @@ class ImportServiceTest {
         MultipartFile file = createMockCsvFile(csvContent);
 
         RuntimeException dbException = new RuntimeException("Database error during speaker lookup");
+        when(speakerService.createAll(anyCollection())).thenThrow(dbException);
         when(speakerService.findOrCreate("John Doe")).thenThrow(dbException);
 
         ImportResult result = importService.importCsv(file);
@@ -178,7 +260,8 @@ class ImportServiceTest {
         assertThat(error.getMessage()).isEqualTo("Error saving record for title 'Talk 1': Database error during speaker lookup");
 
         verify(speakerService, times(1)).findOrCreate("John Doe");
-        verifyNoInteractions(talkService);
+        verify(talkService, never()).createAll(anyList());
+        verify(talkService, never()).saveIfNotExists(any(), any(), anyLong(), anyInt(), anyInt());
     }
 
     @Test
@@ -190,9 +273,12 @@ class ImportServiceTest {
             """;
         MultipartFile file = createMockCsvFile(csvContent);
 
-        when(speakerService.findOrCreate("John Doe")).thenReturn(speakerJohn);
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
         RuntimeException dbException = new RuntimeException("Database error during talk save");
-        doThrow(dbException).when(talkService).saveIfNotExists(any(CsvRecord.class), eq(1L), eq(100), eq(50));
+        doThrow(dbException).when(talkService).createAll(anyList());
+        doThrow(dbException).when(talkService).saveIfNotExists(any(CsvRecord.class), eq(YearMonth.of(2023, 1)), eq(1L), eq(100), eq(50));
+        // the speaker created inside the rolled-back transaction is not trusted by the replay
+        when(speakerService.findOrCreate("John Doe")).thenReturn(speakerJohn);
 
         ImportResult result = importService.importCsv(file);
 
@@ -203,6 +289,486 @@ class ImportServiceTest {
         assertThat(error.getMessage()).isEqualTo("Error saving record for title 'Talk 1': Database error during talk save");
 
         verify(speakerService, times(1)).findOrCreate("John Doe");
-        verify(talkService, times(1)).saveIfNotExists(any(CsvRecord.class), eq(1L), eq(100), eq(50)); // Verify the call was made
+        verify(talkService, times(1)).createAll(anyList());
+        verify(talkService, times(1)).saveIfNotExists(any(CsvRecord.class), eq(YearMonth.of(2023, 1)), eq(1L), eq(100), eq(50)); // Verify the call was made
+    }
+
+    @Test
+    @DisplayName("Import keeps streaming past malformed lines and reports them in place")
+    void importCsvWithMalformedLine() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            Broken Row,Talk X
+            Jane Smith,Talk 2,200,100,February 2023,http://example.com/2
+            """;
+        MultipartFile file = createMockCsvFile(csvContent);
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId(), "Jane Smith", speakerJane.getId()));
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(3);
+
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getSpeakerId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Import flushes talks in batches of the configured size")
+    void importCsvInBatches() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,200,60,February 2023,http://example.com/2
+            John Doe,Talk 3,300,70,March 2023,http://example.com/3
+            """;
+        MultipartFile file = createMockCsvFile(csvContent);
+        importProperties.setBatchSize(2);
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        verify(talkService, times(2)).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        verify(talkService, never()).saveIfNotExists(any(), any(), anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Import skips talks that already exist or repeat within the file")
+    void importCsvSkipsDuplicates() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,200,60,February 2023,http://example.com/2
+            John Doe,Talk 2,200,60,February 2023,http://example.com/2
+            """;
+        MultipartFile file = createMockCsvFile(csvContent);
+
+        LongLongHashMap existing = new LongLongHashMap();
+        existing.put(TalkFingerprint.of("Talk 1", speakerJohn.getId(), YearMonth.of(2023, 1)), TalkFingerprint.content(100, 50));
+        when(talkService.findAllFingerprints()).thenReturn(existing);
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        assertThat(result.getErrors()).isEmpty();
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getTitle).containsExactly("Talk 2");
+        assertThat(existing.size()).isEqualTo(2);
+        assertThat(result.getNewTalks()).isEqualTo(1);
+        assertThat(result.getNewSpeakers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Import validates chunks in parallel and keeps rows and errors in file order")
+    void importCsvAcrossChunks() throws IOException {
+        StringBuilder csvContent = new StringBuilder("author,title,views,likes,date,link\n");
+        for (int i = 1; i <= 50; i++) {
+            String views = i % 10 == 0 ? "bad" : String.valueOf(i);
+            csvContent.append("John Doe,Talk ").append(i).append(',').append(views)
+                    .append(",1,January 2023,http://example.com/").append(i).append('\n');
+        }
+        MultipartFile file = createMockCsvFile(csvContent.toString());
+        importProperties.setChunkSize(7);
+        importProperties.setBatchSize(1000);
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(45);
+        assertThat(result.getErrors()).extracting(ImportError::getLine).containsExactly(11, 21, 31, 41, 51);
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getViews)
+                .isSorted()
+                .hasSize(45);
+    }
+
+    @Test
+    @DisplayName("Import commits in chunks and advances the checkpoint after each commit")
+    void importCsvCommitsInChunks() {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,200,60,February 2023,http://example.com/2
+            John Doe,Talk 3,bad,70,March 2023,http://example.com/3
+            """;
+        importProperties.setCommitSize(1);
+        ImportCheckpoint checkpoint = importService.newCheckpoint();
+        List<Integer> committedLines = new ArrayList<>();
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+        when(talkService.createAll(anyList())).thenAnswer(invocation -> {
+            committedLines.add(checkpoint.getLine());
+            return invocation.getArgument(0);
+        });
+
+        ImportResult result = importService.importCsv(new StringReader(csvContent), new ImportProgress(), checkpoint);
+
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(committedLines).containsExactly(0, 2);
+        assertThat(checkpoint.getLine()).isEqualTo(4);
+        assertThat(checkpoint.getRowsImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportError::getLine).containsExactly(4);
+        verify(speakerService, times(1)).createAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Import resumed from a checkpoint skips the lines already committed")
+    void importCsvResumesFromCheckpoint() {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,bad,60,February 2023,http://example.com/2
+            John Doe,Talk 3,300,70,March 2023,http://example.com/3
+            John Doe,Talk 4,bad,80,April 2023,http://example.com/4
+            """;
+        ImportCheckpoint checkpoint = importService.newCheckpoint();
+        ImportError earlierError = new ImportError(3, ErrorType.NUMBER_PARSE_ERROR, "views", "bad", "earlier run");
+        checkpoint.getErrors().add(earlierError);
+        checkpoint.advance(3, 1);
+        ImportProgress progress = new ImportProgress();
+
+        when(speakerService.findAllIdsByName()).thenReturn(new HashMap<>(Map.of("John Doe", speakerJohn.getId())));
+
+        ImportResult result = importService.importCsv(new StringReader(csvContent), progress, checkpoint);
+
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportError::getLine).containsExactly(3, 5);
+        assertThat(result.getErrors().get(0)).isSameAs(earlierError);
+        assertThat(progress.getRowsRead()).isEqualTo(4);
+        assertThat(progress.getRowsFailed()).isEqualTo(2);
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getTitle).containsExactly("Talk 3");
+        verify(speakerService, never()).createAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Import reads a server-side file from the configured directory")
+    void importFileFromDirectory(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("nightly.csv"), """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,bad,60,February 2023,http://example.com/2
+            """);
+        importProperties.setDirectory(directory.toString());
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importFile("nightly.csv");
+
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportError::getLine).containsExactly(3);
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getTitle).containsExactly("Talk 1");
+    }
+
+    @Test
+    @DisplayName("Import refuses server-side files outside the configured directory")
+    void importFileOutsideDirectory(@TempDir Path directory) throws IOException {
+        Files.createDirectory(directory.resolve("imports"));
+        Files.writeString(directory.resolve("secret.csv"), "author,title,views,likes,date,link\n");
+        importProperties.setDirectory(directory.resolve("imports").toString());
+
+        assertThatThrownBy(() -> importService.importFile("../secret.csv"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Import file not found: ../secret.csv");
+    }
+
+    @Test
+    @DisplayName("Import refuses symbolic links that lead out of the configured directory")
+    void importFileThroughSymbolicLink(@TempDir Path directory) throws IOException {
+        Path imports = Files.createDirectory(directory.resolve("imports"));
+        Path secret = Files.writeString(directory.resolve("secret.csv"), "author,title,views,likes,date,link\n");
+        Files.createSymbolicLink(imports.resolve("talks.csv"), secret);
+        importProperties.setDirectory(imports.toString());
+
+        assertThatThrownBy(() -> importService.importFile("talks.csv"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Import file not found: talks.csv");
+    }
+
+    @Test
+    @DisplayName("Import decompresses gzip uploads on the fly")
+    void importGzipCsv() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            """;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream gz = new GZIPOutputStream(compressed)) {
+            gz.write(csvContent.getBytes(StandardCharsets.UTF_8));
+        }
+        MultipartFile file = new MockMultipartFile("file", "test.csv.gz", "application/gzip", compressed.toByteArray());
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importCsv(file);
+
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Import streams compressed server-side files instead of mapping them")
+    void importCompressedFileFromDirectory(@TempDir Path directory) throws IOException {
+        try (OutputStream gz = new GZIPOutputStream(Files.newOutputStream(directory.resolve("nightly.csv.gz")))) {
+            gz.write("""
+                author,title,views,likes,date,link
+                John Doe,Talk 1,100,50,January 2023,http://example.com/1
+                """.getBytes(StandardCharsets.UTF_8));
+        }
+        importProperties.setDirectory(directory.toString());
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importFile("nightly.csv.gz");
+
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Import keeps a capped error sample with per-type counts")
+    void importCsvCapsErrorSample() throws IOException {
+        StringBuilder csvContent = new StringBuilder("author,title,views,likes,date,link\n");
+        for (int i = 1; i <= 30; i++) {
+            String date = i % 3 == 0 ? "Someday" : "January 2023";
+            csvContent.append("John Doe,Talk ").append(i).append(",bad,1,").append(date).append(",x\n");
+        }
+        importProperties.setErrorSampleSize(5);
+        importProperties.setChunkSize(4);
+        importProperties.setCommitSize(3);
+
+        ImportResult result = importService.importCsv(createMockCsvFile(csvContent.toString()));
+
+        assertThat(result.getImportedCount()).isZero();
+        assertThat(result.getErrors()).extracting(ImportError::getLine).containsExactly(2, 3, 4, 4, 5);
+        assertThat(result.getErrorCount()).isEqualTo(40);
+        assertThat(result.getErrorCounts()).containsExactly(
+                Map.entry(ErrorType.NUMBER_PARSE_ERROR, 30L),
+                Map.entry(ErrorType.DATE_PARSE_ERROR, 10L));
+    }
+
+    @Test
+    @DisplayName("Dry run validates and dedupes against current data without writing")
+    void dryRunCountsWouldBeNewRows() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,200,60,February 2023,http://example.com/2
+            Jane Roe,Talk 3,300,70,March 2023,http://example.com/3
+            Jane Roe,Talk 3,300,70,March 2023,http://example.com/3
+            Jane Roe,Talk 4,bad,70,March 2023,http://example.com/4
+            """;
+        LongLongHashMap existing = new LongLongHashMap();
+        existing.put(TalkFingerprint.of("Talk 1", speakerJohn.getId(), YearMonth.of(2023, 1)), TalkFingerprint.content(100, 50));
+        when(talkService.findAllFingerprints()).thenReturn(existing);
+        when(speakerService.findAllIdsByName()).thenReturn(new HashMap<>(Map.of("John Doe", speakerJohn.getId())));
+
+        ImportResult result = importService.dryRun(createMockCsvFile(csvContent));
+
+        assertThat(result.isDryRun()).isTrue();
+        assertThat(result.getImportedCount()).isEqualTo(4);
+        assertThat(result.getNewTalks()).isEqualTo(2);
+        assertThat(result.getNewSpeakers()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportError::getLine).containsExactly(6);
+        verify(speakerService, never()).createAll(anyCollection());
+        verify(speakerService, never()).findOrCreate(anyString());
+        verify(talkService, never()).createAll(anyList());
+        verify(talkService, never()).saveIfNotExists(any(), any(), anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Import reads a raw request body using its content encoding")
+    void importRawBody() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (OutputStream gz = new GZIPOutputStream(body)) {
+            gz.write("""
+                author,title,views,likes,date,link
+                John Doe,Talk 1,100,50,January 2023,http://example.com/1
+                """.getBytes(StandardCharsets.UTF_8));
+        }
+
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importCsv(new ByteArrayInputStream(body.toByteArray()), "gzip");
+
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getNewTalks()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Import streams a raw body every time and records it in the history without consulting it")
+    void importRawBody_RecordsWithoutShortCircuit() throws IOException {
+        byte[] body = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            """.getBytes(StandardCharsets.UTF_8);
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult first = importService.importCsv(new ByteArrayInputStream(body), "text/csv");
+        ImportResult second = importService.importCsv(new ByteArrayInputStream(body), "text/csv");
+
+        assertThat(first.getContentHash()).hasSize(64).isEqualTo(second.getContentHash())
+                .isEqualTo(new ImportHistoryService(importedFileDao).hash(new ByteArrayInputStream(body)));
+        assertThat(second.isAlreadyImported()).isFalse();
+        verify(importedFileDao, times(2)).save(any());
+        verify(importedFileDao, never()).findByContentHash(anyString());
+    }
+
+    @Test
+    @DisplayName("Import decodes a compressed body exactly once")
+    void importRawBody_DecodesOnce() throws IOException {
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        try (OutputStream gz = new GZIPOutputStream(inner)) {
+            gz.write("""
+                author,title,views,likes,date,link
+                John Doe,Talk 1,100,50,January 2023,http://example.com/1
+                """.getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (OutputStream gz = new GZIPOutputStream(body)) {
+            gz.write(inner.toByteArray());
+        }
+
+        ImportResult result = importService.importCsv(new ByteArrayInputStream(body.toByteArray()), "gzip");
+
+        // the decoded content is gzip bytes, not CSV, so nothing is imported
+        assertThat(result.getImportedCount()).isZero();
+        verify(speakerService, never()).createAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Import writes only new rows and counts stored rows as unchanged or changed")
+    void importCsvSkipsStoredRows() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,250,80,February 2023,http://example.com/2
+            John Doe,Talk 3,300,90,March 2023,http://example.com/3
+            """;
+        LongLongHashMap existing = new LongLongHashMap();
+        existing.put(TalkFingerprint.of("Talk 1", speakerJohn.getId(), YearMonth.of(2023, 1)), TalkFingerprint.content(100, 50));
+        existing.put(TalkFingerprint.of("Talk 2", speakerJohn.getId(), YearMonth.of(2023, 2)), TalkFingerprint.content(200, 60));
+        when(talkService.findAllFingerprints()).thenReturn(existing);
+        when(speakerService.findAllIdsByName()).thenReturn(new HashMap<>(Map.of("John Doe", speakerJohn.getId())));
+
+        ImportResult result = importService.importCsv(createMockCsvFile(csvContent));
+
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        assertThat(result.getUnchangedRows()).isEqualTo(1);
+        assertThat(result.getChangedRows()).isEqualTo(1);
+        assertThat(result.getNewTalks()).isEqualTo(1);
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getTitle).containsExactly("Talk 3");
+        verify(speakerService, never()).createAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Import records the content hash and answers a repeated file from history")
+    void importCsvShortCircuitsKnownContent() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            """;
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult first = importService.importCsv(createMockCsvFile(csvContent));
+
+        ArgumentCaptor<ImportedFile> recorded = ArgumentCaptor.forClass(ImportedFile.class);
+        verify(importedFileDao).save(recorded.capture());
+        assertThat(recorded.getValue().getContentHash()).isEqualTo(first.getContentHash()).hasSize(64);
+        assertThat(recorded.getValue().getImportedCount()).isEqualTo(1);
+        assertThat(recorded.getValue()).extracting(ImportedFile::getFirstYear, ImportedFile::getLastYear)
+                .containsExactly(2023, 2023);
+        when(importedFileDao.findByContentHash(first.getContentHash())).thenReturn(Optional.of(recorded.getValue()));
+
+        ImportResult second = importService.importCsv(createMockCsvFile(csvContent));
+
+        assertThat(second.isAlreadyImported()).isTrue();
+        assertThat(second.getImportedCount()).isEqualTo(1);
+        assertThat(second.getNewTalks()).isZero();
+        verify(talkService, times(1)).createAll(anyList());
+
+        ImportResult forced = importService.importCsv(createMockCsvFile(csvContent), true, ImportMode.INSERT);
+
+        assertThat(forced.isAlreadyImported()).isFalse();
+        assertThat(forced.getImportedCount()).isEqualTo(1);
+        verify(importedFileDao, times(2)).save(any());
+    }
+
+    @Test
+    @DisplayName("Import with failed rows is not remembered, so sending it again retries them")
+    void importCsvForgetsFailedImports() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,many,50,January 2023,http://example.com/2
+            """;
+        when(speakerService.createAll(anyCollection())).thenReturn(Map.of("John Doe", speakerJohn.getId()));
+
+        ImportResult result = importService.importCsv(createMockCsvFile(csvContent));
+
+        assertThat(result.getErrorCount()).isEqualTo(1);
+        assertThat(result.getContentHash()).hasSize(64);
+        verify(importedFileDao, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("An edit to stored talks forgets only the imports spanning its years")
+    void historyIsForgottenForEditedYears() {
+        ImportHistoryService history = new ImportHistoryService(importedFileDao);
+
+        history.onStoredTalksChanged(StoredTalksChangedEvent.forYears(List.of(2023), false));
+        history.onStoredTalksChanged(StoredTalksChangedEvent.forYears(List.of(2024), true));
+
+        verify(importedFileDao).deleteCoveringYears(Set.of(2023), false);
+        verify(importedFileDao).deleteCoveringYears(Set.of(2024), true);
+        verify(importedFileDao, never()).deleteAll(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("A speaker rename forgets every remembered import")
+    void historyIsForgottenOnRename() {
+        new ImportHistoryService(importedFileDao).onStoredTalksChanged(StoredTalksChangedEvent.forAllYears());
+
+        verify(importedFileDao).deleteAll(false);
+    }
+
+    @Test
+    @DisplayName("Upsert merges changed rows in batches and reports inserted, updated and unchanged talks")
+    void importCsvUpsertsChangedRows() throws IOException {
+        String csvContent = """
+            author,title,views,likes,date,link
+            John Doe,Talk 1,100,50,January 2023,http://example.com/1
+            John Doe,Talk 2,250,80,February 2023,http://example.com/2
+            John Doe,Talk 3,300,90,March 2023,http://example.com/3
+            """;
+        LongLongHashMap existing = new LongLongHashMap();
+        existing.put(TalkFingerprint.of("Talk 1", speakerJohn.getId(), YearMonth.of(2023, 1)), TalkFingerprint.content(100, 50));
+        existing.put(TalkFingerprint.of("Talk 2", speakerJohn.getId(), YearMonth.of(2023, 2)), TalkFingerprint.content(200, 60));
+        when(talkService.findAllFingerprints()).thenReturn(existing);
+        when(speakerService.findAllIdsByName()).thenReturn(new HashMap<>(Map.of("John Doe", speakerJohn.getId())));
+
+        ImportResult result = importService.importCsv(createMockCsvFile(csvContent), false, ImportMode.UPSERT);
+
+        assertThat(result.getMode()).isEqualTo(ImportMode.UPSERT);
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        assertThat(result.getNewTalks()).isEqualTo(1);
+        assertThat(result.getUpdatedTalks()).isEqualTo(1);
+        assertThat(result.getUnchangedRows()).isEqualTo(1);
+        assertThat(result.getChangedRows()).isZero();
+        verify(talkService).createAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getTitle).containsExactly("Talk 3");
+        verify(talkService).upsertAll(talksCaptor.capture());
+        assertThat(talksCaptor.getValue()).extracting(Talk::getTitle, Talk::getViews).containsExactly(tuple("Talk 2", 250));
+        verify(talkService, never()).saveIfNotExists(any(), any(), anyLong(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+}
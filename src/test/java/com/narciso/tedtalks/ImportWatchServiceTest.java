@@ -0,0 +1,94 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.narciso.tedtalks.config.ImportProperties;
+import com.narciso.tedtalks.imports.domain.ImportMode;
+import com.narciso.tedtalks.imports.domain.ImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportWatchServiceTest {
+
+    @Mock
+    private ImportService importService;
+
+    @TempDir
+    Path directory;
+
+    private ImportWatchService importWatchService;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.setWatchDirectory(directory.toString());
+        importWatchService = new ImportWatchService(importService, importProperties, JsonMapper.builder().build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        importWatchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Dropped CSV files are imported and moved to processed with a result sidecar")
+    void importsDroppedFile() throws IOException {
+        Path existing = Files.writeString(directory.resolve("before.csv"), "author,title,views,likes,date,link\n");
+        when(importService.importFile(any(Path.class), eq(false), eq(ImportMode.INSERT)))
+                .thenReturn(new ImportResult(3, List.of()));
+
+        importWatchService.start();
+        Path staged = Files.writeString(Files.createTempFile("talks", ".tmp"), "author,title,views,likes,date,link\n");
+        Files.move(staged, directory.resolve("after.csv"));
+
+        Path processed = directory.resolve(ImportWatchService.PROCESSED);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(processed.resolve("before.csv")).exists();
+            assertThat(processed.resolve("after.csv")).exists();
+        });
+        // a moved file already has its complete sidecar
+        assertThat(processed.resolve("after.csv" + ImportWatchService.SIDECAR_SUFFIX))
+                .content().contains("\"importedCount\":3");
+        assertThat(processed).isDirectoryNotContaining("glob:**.tmp");
+        assertThat(existing).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Files whose import throws are moved to failed, other files are ignored")
+    void movesFailedFile() throws IOException {
+        Path notes = Files.writeString(directory.resolve("notes.txt"), "not a csv");
+        when(importService.importFile(any(Path.class), eq(false), eq(ImportMode.INSERT)))
+                .thenThrow(new IOException("disk error"));
+
+        importWatchService.start();
+        Files.writeString(directory.resolve("broken.csv"), "author,title\n");
+
+        Path failed = directory.resolve(ImportWatchService.FAILED);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(failed.resolve("broken.csv" + ImportWatchService.SIDECAR_SUFFIX)).content()
+                        .contains("disk error")
+                        .contains("\"aborted\":true"));
+        assertThat(notes).exists();
+        verify(importService, never()).importFile(eq(notes), any(Boolean.class), any(ImportMode.class));
+    }
+}
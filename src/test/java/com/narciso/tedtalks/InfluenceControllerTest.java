@@ -0,0 +1,87 @@
+package com.narciso.tedtalks.speakers.controller;
+
+import com.narciso.tedtalks.speakers.service.InfluenceRankingService;
+import com.narciso.tedtalks.speakers.service.InfluenceService;
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategyRegistry;
+import com.narciso.tedtalks.speakers.strategy.WeightedStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InfluenceController.class)
+class InfluenceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private InfluenceService influenceService;
+
+    @MockitoBean
+    private InfluenceRankingService influenceRankingService;
+
+    @MockitoBean
+    private InfluenceStrategyRegistry strategyRegistry;
+
+    private final InfluenceStrategy strategy = new WeightedStrategy();
+
+    @Test
+    @DisplayName("top should answer a k that is not positive with 400")
+    void top_RejectsNonPositiveK() throws Exception {
+        mockMvc.perform(get("/api/speakers/influence/top").param("k", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/speakers/influence/top").param("k", "-3"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(influenceService);
+    }
+
+    @Test
+    @DisplayName("compare should answer a k that is not positive with 400")
+    void compare_RejectsNonPositiveK() throws Exception {
+        mockMvc.perform(get("/api/speakers/influence/compare").param("k", "0"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(influenceService);
+    }
+
+    @Test
+    @DisplayName("ranking should answer a negative page or a size that is not positive with 400")
+    void ranking_RejectsInvalidPage() throws Exception {
+        mockMvc.perform(get("/api/speakers/influence/ranking").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/speakers/influence/ranking").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/speakers/influence/ranking").param("size", "-5"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(influenceRankingService);
+    }
+
+    @Test
+    @DisplayName("ranking should pass a single sort parameter with its direction")
+    void ranking_KeepsSortDirection() throws Exception {
+        when(strategyRegistry.resolve(null, null, null)).thenReturn(strategy);
+        when(influenceRankingService.rank(eq(Optional.empty()), any(Pageable.class), eq(strategy))).thenReturn(Page.empty());
+
+        mockMvc.perform(get("/api/speakers/influence/ranking").param("sort", "totalViews,desc"))
+                .andExpect(status().isOk());
+
+        verify(influenceRankingService).rank(Optional.empty(), PageRequest.of(0, 25, Sort.by(Sort.Direction.DESC, "totalViews")), strategy);
+    }
+}
@@ -0,0 +1,171 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.common.exception.InvalidInfluenceRequestException;
+import com.narciso.tedtalks.config.InfluenceProperties;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.domain.MostInfluentialSpeaker;
+import com.narciso.tedtalks.speakers.dto.InfluenceCacheStatsDto;
+import com.narciso.tedtalks.speakers.dto.RankedSpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
+import com.narciso.tedtalks.speakers.strategy.WeightedStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InfluenceRankingServiceTest {
+
+    @Mock
+    private InfluenceService influenceService;
+
+    private InfluenceCache influenceCache;
+
+    private InfluenceRankingService influenceRankingService;
+
+    private InfluenceRanking ranking;
+
+    private final InfluenceStrategy weighted = new WeightedStrategy();
+
+    @BeforeEach
+    void setUp() {
+        InfluenceProperties influenceProperties = new InfluenceProperties();
+        influenceProperties.setCacheSize(3);
+        influenceCache = new InfluenceCache(influenceProperties);
+        influenceRankingService = new InfluenceRankingService(influenceService, influenceCache);
+        ranking = new InfluenceRanking(
+                new long[]{3, 1, 2, 5, 4},
+                new String[]{"C", "A", "B", "E", "D"},
+                new long[]{500, 400, 300, 200, 100},
+                new long[]{50, 40, 30, 20, 10},
+                new double[]{365, 292, 219, 146, 73});
+    }
+
+    @Test
+    @DisplayName("rank should cut pages with ranks out of the sorted ranking")
+    void rank_ReturnsPageWithRanks() {
+        when(influenceService.ranking(Optional.of(2023), weighted)).thenReturn(ranking);
+
+        Page<RankedSpeakerInfluenceDto> page = influenceRankingService.rank(Optional.of(2023), PageRequest.of(1, 2), weighted);
+
+        assertThat(page.getContent()).extracting(RankedSpeakerInfluenceDto::getRank).containsExactly(3, 4);
+        assertThat(page.getContent()).extracting(RankedSpeakerInfluenceDto::getSpeakerId).containsExactly(2L, 5L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("rank should list the least influential speakers first when sorted by score ascending")
+    void rank_SortsWorstFirst() {
+        when(influenceService.ranking(Optional.empty(), weighted)).thenReturn(ranking);
+
+        Page<RankedSpeakerInfluenceDto> page = influenceRankingService.rank(Optional.empty(),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "score")), weighted);
+
+        assertThat(page.getContent()).extracting(RankedSpeakerInfluenceDto::getRank).containsExactly(5, 4);
+        assertThat(page.getContent()).extracting(RankedSpeakerInfluenceDto::getName).containsExactly("D", "E");
+    }
+
+    @Test
+    @DisplayName("rank should sort by name, totals or speaker id and keep the ranks of the sorted speakers")
+    void rank_SortsByOtherProperties() {
+        when(influenceService.ranking(Optional.empty(), weighted)).thenReturn(ranking);
+
+        Page<RankedSpeakerInfluenceDto> byName = influenceRankingService.rank(Optional.empty(),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "name")), weighted);
+        Page<RankedSpeakerInfluenceDto> byViews = influenceRankingService.rank(Optional.empty(),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "totalViews")), weighted);
+        Page<RankedSpeakerInfluenceDto> byId = influenceRankingService.rank(Optional.empty(),
+                PageRequest.of(0, 5, Sort.by("speakerId")), weighted);
+
+        assertThat(byName.getContent()).extracting(RankedSpeakerInfluenceDto::getName).containsExactly("E", "D", "C");
+        assertThat(byName.getContent()).extracting(RankedSpeakerInfluenceDto::getRank).containsExactly(4, 5, 1);
+        assertThat(byViews.getContent()).extracting(RankedSpeakerInfluenceDto::getTotalViews).containsExactly(300, 400);
+        assertThat(byId.getContent()).extracting(RankedSpeakerInfluenceDto::getSpeakerId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(byId.getContent()).extracting(RankedSpeakerInfluenceDto::getRank).containsExactly(2, 3, 1, 5, 4);
+    }
+
+    @Test
+    @DisplayName("rank should refuse to sort by a property the ranking does not have")
+    void rank_RejectsUnknownSortProperty() {
+        when(influenceService.ranking(Optional.empty(), weighted)).thenReturn(ranking);
+
+        assertThatThrownBy(() -> influenceRankingService.rank(Optional.empty(),
+                PageRequest.of(0, 2, Sort.by("title")), weighted))
+                .isInstanceOf(InvalidInfluenceRequestException.class)
+                .hasMessageContaining("'title'");
+    }
+
+    @Test
+    @DisplayName("rank should build each ranking once until a change affects its year")
+    void rank_ReusesRankingUntilInvalidated() {
+        when(influenceService.ranking(any(), any())).thenReturn(ranking);
+
+        influenceRankingService.rank(Optional.of(2023), PageRequest.of(0, 2), weighted);
+        influenceRankingService.rank(Optional.of(2023), PageRequest.of(1, 2), weighted);
+        influenceRankingService.rank(Optional.of(2022), PageRequest.of(0, 2), weighted);
+        influenceRankingService.rank(Optional.empty(), PageRequest.of(0, 2), weighted);
+        verify(influenceService, times(1)).ranking(Optional.of(2023), weighted);
+
+        influenceCache.onInfluenceDataChanged(InfluenceDataChangedEvent.forYears(List.of(2022)));
+        influenceRankingService.rank(Optional.of(2023), PageRequest.of(0, 2), weighted);
+        influenceRankingService.rank(Optional.of(2022), PageRequest.of(0, 2), weighted);
+        influenceRankingService.rank(Optional.empty(), PageRequest.of(0, 2), weighted);
+
+        verify(influenceService, times(1)).ranking(Optional.of(2023), weighted);
+        verify(influenceService, times(2)).ranking(Optional.of(2022), weighted);
+        verify(influenceService, times(2)).ranking(Optional.empty(), weighted);
+    }
+
+    @Test
+    @DisplayName("Cached results should be counted as hits, and the least recently used entry evicted over the limit")
+    void cache_CountsHitsMissesAndEvictions() {
+        MostInfluentialSpeaker top = new MostInfluentialSpeaker(3L, "C", BigDecimal.valueOf(365));
+        when(influenceService.findMostInfluentialSpeaker(anyInt(), eq(weighted))).thenReturn(Optional.of(top));
+
+        assertThat(influenceRankingService.findMostInfluentialSpeaker(2021, weighted)).contains(top);
+        assertThat(influenceRankingService.findMostInfluentialSpeaker(2021, weighted)).contains(top);
+        influenceRankingService.findMostInfluentialSpeaker(2022, weighted);
+        influenceRankingService.findMostInfluentialSpeaker(2023, weighted);
+        influenceRankingService.findMostInfluentialSpeaker(2021, weighted);
+        // 2022 is the least recently used of the three cached years
+        influenceRankingService.findMostInfluentialSpeaker(2024, weighted);
+        influenceRankingService.findMostInfluentialSpeaker(2022, weighted);
+
+        verify(influenceService, times(1)).findMostInfluentialSpeaker(2021, weighted);
+        verify(influenceService, times(2)).findMostInfluentialSpeaker(2022, weighted);
+        InfluenceCacheStatsDto stats = influenceRankingService.cacheStats();
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(5);
+        assertThat(stats.getEvictions()).isEqualTo(2);
+        assertThat(stats.getSize()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A change should only invalidate the results of its years and those over all years")
+    void cache_InvalidatesAffectedYears() {
+        when(influenceService.ranking(any(), any())).thenReturn(ranking);
+        when(influenceService.findMostInfluentialSpeaker(anyInt(), eq(weighted))).thenReturn(Optional.empty());
+
+        influenceRankingService.analyzeInfluence(Optional.empty(), weighted);
+        influenceRankingService.analyzeInfluence(Optional.of(2022), weighted);
+        influenceRankingService.findMostInfluentialSpeaker(2023, weighted);
+        influenceCache.onInfluenceDataChanged(InfluenceDataChangedEvent.forYears(List.of(2023)));
+
+        assertThat(influenceRankingService.cacheStats().getInvalidations()).isEqualTo(2);
+        assertThat(influenceRankingService.cacheStats().getSize()).isEqualTo(1);
+    }
+}
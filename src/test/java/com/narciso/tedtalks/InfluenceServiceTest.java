@@ -2,25 +2,27 @@ package com.narciso.tedtalks.speakers.service;
 
 import com.narciso.tedtalks.speakers.domain.MostInfluentialSpeaker;
 import com.narciso.tedtalks.speakers.dto.SpeakerInfluenceDto;
+import com.narciso.tedtalks.speakers.strategy.CompositeStrategy;
 import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
+import com.narciso.tedtalks.speakers.strategy.WeightedStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,7 +38,6 @@ class InfluenceServiceTest {
     @Mock
     private InfluenceStrategy strategy;
 
-    @InjectMocks
     private InfluenceService influenceService;
 
     @Captor
@@ -45,14 +46,9 @@ class InfluenceServiceTest {
     @Captor
     private ArgumentCaptor<SqlParameterSource> paramsCaptor;
 
-    @Captor
-    private ArgumentCaptor<RowMapper<SpeakerInfluenceDto>> influenceDtoRowMapperCaptor;
-
-    @Captor
-    private ArgumentCaptor<RowMapper<MostInfluentialSpeaker>> mostInfluentialSpeakerRowMapperCaptor;
-
     @BeforeEach
     void setUp() {
+        influenceService = new InfluenceService(jdbcTemplate, strategy, Optional.empty());
         SpeakerInfluenceDto speaker1Dto = new SpeakerInfluenceDto(1L, "Speaker One", 1000, 100, BigDecimal.valueOf(110.0));
         SpeakerInfluenceDto speaker2Dto = new SpeakerInfluenceDto(2L, "Speaker Two", 2000, 50, BigDecimal.valueOf(205.0)); // Higher score
 
@@ -87,14 +83,11 @@ class InfluenceServiceTest {
     void analyzeInfluence_NoData_ShouldReturnEmptyList() {
         Optional<Integer> yearOptional = Optional.of(2023);
 
-        when(jdbcTemplate.query(sqlCaptor.capture(), paramsCaptor.capture(), influenceDtoRowMapperCaptor.capture()))
-                .thenReturn(Collections.emptyList());
-
         List<SpeakerInfluenceDto> result = influenceService.analyzeInfluence(yearOptional);
 
         assertThat(result).isEmpty();
 
-        verify(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        verify(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
         verifyNoInteractions(strategy);
         verifyNoMoreInteractions(jdbcTemplate);
     }
@@ -104,16 +97,147 @@ class InfluenceServiceTest {
     void findMostInfluentialSpeaker_NoDataFound_ShouldReturnEmptyOptional() {
         int year = 2023;
 
-        when(jdbcTemplate.query(sqlCaptor.capture(), paramsCaptor.capture(), mostInfluentialSpeakerRowMapperCaptor.capture()))
-                .thenReturn(Collections.emptyList());
+        when(strategy.sqlScore(anyString(), anyString())).thenReturn(Optional.of("score"));
 
         Optional<MostInfluentialSpeaker> result = influenceService.findMostInfluentialSpeaker(year);
 
         assertThat(result).isNotPresent();
 
-        verify(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
-        verifyNoInteractions(strategy);
+        verify(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        verify(strategy, never()).score(anyLong(), anyLong());
+        verify(strategy, never()).scoreAll(any(), any(), any(), anyInt());
         verifyNoMoreInteractions(jdbcTemplate);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("topK should rank in SQL when the strategy has an SQL form")
+    void topK_PushesScoreIntoSql() {
+        when(strategy.sqlScore("SUM(st.total_views)", "SUM(st.total_likes)"))
+                .thenReturn(Optional.of("(SUM(st.total_views) + SUM(st.total_likes))"));
+
+        influenceService.topK(Optional.of(2023), 3);
+
+        verify(jdbcTemplate).query(sqlCaptor.capture(), paramsCaptor.capture(), any(RowCallbackHandler.class));
+        assertThat(sqlCaptor.getValue())
+                .contains("ORDER BY (SUM(st.total_views) + SUM(st.total_likes)) DESC")
+                .contains("LIMIT :k");
+        assertThat(paramsCaptor.getValue().getValue("k")).isEqualTo(3);
+        assertThat(paramsCaptor.getValue().getValue("year")).isEqualTo(2023);
+    }
+
+    @Test
+    @DisplayName("topK should keep only the k best rows when the strategy has no SQL form")
+    void topK_StreamsThroughBoundedHeap() {
+        streamTotalsScoredByViews();
+
+        List<SpeakerInfluenceDto> result = influenceService.topK(Optional.empty(), 2);
+
+        assertThat(result).extracting(SpeakerInfluenceDto::getSpeakerId).containsExactly(2L, 4L);
+        assertThat(sqlCaptor.getValue()).doesNotContain("LIMIT");
+    }
+
+    @Test
+    @DisplayName("topK should not size its heap by a k far above the number of speakers")
+    void topK_HugeKReturnsEverySpeaker() {
+        streamTotalsScoredByViews();
+
+        List<SpeakerInfluenceDto> result = influenceService.topK(Optional.empty(), Integer.MAX_VALUE);
+
+        assertThat(result).extracting(SpeakerInfluenceDto::getSpeakerId).containsExactly(2L, 4L, 3L, 5L, 1L);
+    }
+
+    @Test
+    @DisplayName("topK should break ties by speaker id when the strategy has no SQL form, as the SQL ordering does")
+    void topK_BreaksTiesBySpeakerId() {
+        streamTotalsScoredByViews(new long[][]{{4, 30, 1}, {3, 30, 1}, {1, 10, 1}, {2, 30, 1}});
+
+        List<SpeakerInfluenceDto> result = influenceService.topK(Optional.empty(), 2);
+
+        assertThat(result).extracting(SpeakerInfluenceDto::getSpeakerId).containsExactly(2L, 3L);
+    }
+
+    private void streamTotalsScoredByViews() {
+        streamTotalsScoredByViews(new long[][]{{1, 10, 1}, {2, 50, 5}, {3, 30, 3}, {4, 40, 4}, {5, 20, 2}});
+    }
+
+    private void streamTotalsScoredByViews(long[][] rows) {
+        when(strategy.score(anyLong(), anyLong()))
+                .thenAnswer(invocation -> (double) (long) invocation.getArgument(0));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (long[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                lenient().when(rs.getLong("speaker_id")).thenReturn(row[0]);
+                lenient().when(rs.getString("name")).thenReturn("Speaker " + row[0]);
+                when(rs.getLong("total_views")).thenReturn(row[1]);
+                when(rs.getLong("total_likes")).thenReturn(row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(sqlCaptor.capture(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("analyzeInfluence should read the speaker-year aggregate instead of the talks")
+    void analyzeInfluence_ReadsSpeakerYearStats() {
+        influenceService.analyzeInfluence(Optional.of(2023));
+
+        verify(jdbcTemplate).query(sqlCaptor.capture(), paramsCaptor.capture(), any(RowCallbackHandler.class));
+        assertThat(sqlCaptor.getValue()).contains("FROM speaker_year_stats").doesNotContain("talks t");
+        assertThat(paramsCaptor.getValue().getValue("year")).isEqualTo(2023);
+    }
+
+    @Test
+    @DisplayName("analyzeInfluence should score all rows in one batch and round only the returned scores")
+    void analyzeInfluence_ScoresRowsInOneBatch() {
+        InfluenceStrategy weighted = spy(new WeightedStrategy());
+        long[][] rows = {{1, 1000, 100}, {2, 21409000, 647900}, {3, 2000, 50}};
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (long[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("speaker_id")).thenReturn(row[0]);
+                when(rs.getString("name")).thenReturn("Speaker " + row[0]);
+                when(rs.getLong("total_views")).thenReturn(row[1]);
+                when(rs.getLong("total_likes")).thenReturn(row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        List<SpeakerInfluenceDto> result = new InfluenceService(jdbcTemplate, weighted, Optional.empty()).analyzeInfluence(Optional.empty());
+
+        assertThat(result).extracting(SpeakerInfluenceDto::getSpeakerId).containsExactly(2L, 3L, 1L);
+        assertThat(result.get(0).getScore()).isEqualTo(new BigDecimal("15180670.00"));
+        assertThat(result.get(1).getScore()).isEqualTo(new BigDecimal("1415.00"));
+        verify(weighted).scoreAll(any(), any(), any(), eq(3));
+        verify(weighted, never()).score(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("compare should score one scan of the totals with every strategy")
+    void compare_ScoresSingleScanWithEachStrategy() {
+        long[][] rows = {{1, 1000, 900}, {2, 2000, 10}};
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (long[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("speaker_id")).thenReturn(row[0]);
+                when(rs.getString("name")).thenReturn("Speaker " + row[0]);
+                when(rs.getLong("total_views")).thenReturn(row[1]);
+                when(rs.getLong("total_likes")).thenReturn(row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        Map<String, List<SpeakerInfluenceDto>> tops = influenceService.compare(Optional.of(2023), 1,
+                List.of(new WeightedStrategy(), new WeightedStrategy(0.0, 1.0), new CompositeStrategy()));
+
+        assertThat(tops).containsOnlyKeys("weighted:0.7:0.3", "weighted:0.0:1.0", "composite");
+        assertThat(tops.get("weighted:0.7:0.3")).extracting(SpeakerInfluenceDto::getSpeakerId).containsExactly(2L);
+        assertThat(tops.get("weighted:0.0:1.0")).extracting(SpeakerInfluenceDto::getSpeakerId).containsExactly(1L);
+        assertThat(tops.get("composite")).hasSize(1);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+}
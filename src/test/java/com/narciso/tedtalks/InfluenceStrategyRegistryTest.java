@@ -0,0 +1,50 @@
+package com.narciso.tedtalks.speakers.strategy;
+
+import com.narciso.tedtalks.common.exception.InvalidInfluenceStrategyException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InfluenceStrategyRegistryTest {
+    private final WeightedStrategy weighted = new WeightedStrategy();
+    private final CompositeStrategy composite = new CompositeStrategy();
+    private final InfluenceStrategyRegistry registry = new InfluenceStrategyRegistry(List.of(weighted, composite), weighted);
+
+    @Test
+    @DisplayName("Strategies should be resolved by name, with the default when none is given")
+    void resolve_ByName() {
+        assertThat(registry.resolve(null, null, null)).isSameAs(weighted);
+        assertThat(registry.resolve("composite", null, null)).isSameAs(composite);
+        assertThat(registry.names()).containsExactly("composite", "weighted");
+    }
+
+    @Test
+    @DisplayName("Weights should produce a differently keyed weighted strategy")
+    void resolve_WithWeights() {
+        InfluenceStrategy strategy = registry.resolve("weighted", 0.5, 0.5);
+
+        assertThat(strategy.key()).isEqualTo("weighted:0.5:0.5");
+        assertThat(strategy.score(100, 300)).isEqualTo(200.0);
+        assertThat(registry.resolve("weighted:0.5:0.5").key()).isEqualTo(strategy.key());
+    }
+
+    @Test
+    @DisplayName("Unknown strategies, weights for strategies without them and invalid weights should be rejected")
+    void resolve_RejectsInvalidRequests() {
+        assertThatThrownBy(() -> registry.resolve("viral", null, null))
+                .isInstanceOf(InvalidInfluenceStrategyException.class)
+                .hasMessageContaining("composite, weighted");
+        assertThatThrownBy(() -> registry.resolve("composite", 0.5, 0.5))
+                .isInstanceOf(InvalidInfluenceStrategyException.class);
+        assertThatThrownBy(() -> registry.resolve("weighted", 0.5, null))
+                .isInstanceOf(InvalidInfluenceStrategyException.class);
+        assertThatThrownBy(() -> registry.resolve("weighted", -1.0, 0.5))
+                .isInstanceOf(InvalidInfluenceStrategyException.class);
+        assertThatThrownBy(() -> registry.resolve("weighted:a:b"))
+                .isInstanceOf(InvalidInfluenceStrategyException.class);
+    }
+}
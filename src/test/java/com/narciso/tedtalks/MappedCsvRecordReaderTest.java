@@ -0,0 +1,94 @@
+package com.narciso.tedtalks.imports.service;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedCsvRecordReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Object> readAll(CsvRecordReader reader) {
+        List<Object> out = new ArrayList<>();
+        List<ImportError> errors = new ArrayList<>();
+        while (true) {
+            reader.drainRejected(errors);
+            out.addAll(errors);
+            errors.clear();
+            CsvRecord rec = reader.next();
+            if (rec == null) {
+                return out;
+            }
+            out.add(rec);
+        }
+    }
+
+    private List<Object> readMapped(Path file, int windowSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return readAll(new MappedCsvRecordReader(channel, windowSize));
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("talks.csv"), content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should read the sample data exactly like the OpenCSV reader across window boundaries")
+    void readsLikeOpenCsv() throws IOException {
+        Path sample = Path.of("src/main/resources/templates/iO_Data.csv");
+        List<Object> expected;
+        try (Reader reader = Files.newBufferedReader(sample)) {
+            expected = readAll(new OpenCsvRecordReader(reader));
+        }
+
+        assertThat(readMapped(sample, 4096)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should split quoted fields and reject malformed records in place")
+    void readsQuotedFieldsAndRejects() throws IOException {
+        Path file = write("""
+                \uFEFFTitle,author,date,views,likes,link\r
+                "Hello, ""world""\",Jane,January 2020,1,2,x\r
+                "multi
+                line",Jane,January 2020,1,2,x
+                A,Jane,January 2020,,2,x
+                A,Jane,January 2020,1,2
+                \u00DCn\u00EFc\u00F6d\u00E9,Jane,January 2020,1,2,x""");
+
+        assertThat(readMapped(file, 7)).containsExactly(
+                new CsvRecord("Hello, \"world\"", "Jane", "January 2020", "1", "2", "x"),
+                new CsvRecord("multi\nline", "Jane", "January 2020", "1", "2", "x"),
+                new ImportError(5, ErrorType.MISSING_FIELD, null, null, "Field 'views' is mandatory but no value was provided."),
+                new ImportError(6, ErrorType.MISSING_FIELD, null, null, "Number of data fields does not match number of headers."),
+                new CsvRecord("\u00DCn\u00EFc\u00F6d\u00E9", "Jane", "January 2020", "1", "2", "x")
+        );
+    }
+
+    @Test
+    @DisplayName("Should fail when the header lacks a required column")
+    void rejectsIncompleteHeader() throws IOException {
+        Path file = write("title,author,date,views,likes\nA,B,January 2020,1,2\n");
+
+        assertThatThrownBy(() -> readMapped(file, 1024))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Header is missing required fields [LINK]");
+    }
+}
@@ -0,0 +1,44 @@
+package com.narciso.tedtalks.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonthYearParserTest {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+
+    @Test
+    @DisplayName("Should parse every English month name")
+    void parse_AllMonths() {
+        for (int m = 1; m <= 12; m++) {
+            YearMonth expected = YearMonth.of(2021, m);
+            String raw = expected.format(DATE_FORMATTER);
+
+            assertThat(MonthYearParser.parse(raw)).isEqualTo(expected);
+        }
+        assertThat(MonthYearParser.parse("May 1850")).isEqualTo(YearMonth.of(1850, 5));
+    }
+
+    @Test
+    @DisplayName("Should reject the same inputs as DateTimeFormatter")
+    void parse_RejectsInvalidInput() {
+        List<String> invalid = List.of(
+                "", "2021", "December", "december 2021", "DECEMBER 2021", "Dec 2021",
+                "December  2021", " December 2021", "December 2021 ", "December 21",
+                "December 20x1", "Decembre 2021", "2021-12", "December 0000"
+        );
+
+        for (String raw : invalid) {
+            assertThat(MonthYearParser.parse(raw)).as(raw).isNull();
+        }
+        assertThat(MonthYearParser.parse(null)).isNull();
+    }
+}
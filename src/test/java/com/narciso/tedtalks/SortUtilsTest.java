@@ -0,0 +1,32 @@
+package com.narciso.tedtalks.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortUtilsTest {
+
+    @Test
+    @DisplayName("Should keep the direction of a single sort parameter split in two by the binding")
+    void createSort_FoldsSplitDirection() {
+        assertThat(SortUtils.createSort(new String[]{"title", "desc"}))
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "title"));
+    }
+
+    @Test
+    @DisplayName("Should sort by each of several parameters in turn")
+    void createSort_SeveralParameters() {
+        assertThat(SortUtils.createSort(new String[]{"views,desc", "title"}))
+                .isEqualTo(Sort.by(Sort.Order.desc("views"), Sort.Order.asc("title")));
+        assertThat(SortUtils.createSort(new String[]{"views", "title"}))
+                .isEqualTo(Sort.by(Sort.Order.asc("views"), Sort.Order.asc("title")));
+    }
+
+    @Test
+    @DisplayName("Should fall back to name ascending when no sort is given")
+    void createSort_Default() {
+        assertThat(SortUtils.createSort(null)).isEqualTo(Sort.by("name").ascending());
+    }
+}
@@ -2,20 +2,25 @@ package com.narciso.tedtalks.speakers.service;
 
 import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
 import com.narciso.tedtalks.speakers.dao.SpeakerDao;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
 import com.narciso.tedtalks.speakers.domain.Speaker;
+import com.narciso.tedtalks.talks.domain.StoredTalksChangedEvent;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,6 +33,9 @@ class SpeakerServiceTest {
     @Mock
     private SpeakerDao speakerDao;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SpeakerService speakerService;
 
@@ -62,6 +70,29 @@ class SpeakerServiceTest {
         verify(speakerDao).save(newSpeaker);
     }
 
+    @Test
+    @DisplayName("Should create speakers in bulk and return their ids by name")
+    void createAll() {
+        Set<String> names = Set.of("John", "Jane");
+        Map<String, Long> ids = Map.of("John", 1L, "Jane", 2L);
+        when(speakerDao.saveAll(names)).thenReturn(ids);
+
+        Map<String, Long> result = speakerService.createAll(names);
+
+        assertThat(result).isEqualTo(ids);
+        verify(speakerDao).saveAll(names);
+    }
+
+    @Test
+    @DisplayName("Should load every speaker id keyed by name")
+    void findAllIdsByName() {
+        Map<String, Long> ids = Map.of("John", 1L);
+        when(speakerDao.findAllIdsByName()).thenReturn(ids);
+
+        assertThat(speakerService.findAllIdsByName()).isEqualTo(ids);
+        verify(speakerDao).findAllIdsByName();
+    }
+
     @Test
     @DisplayName("Should return all speakers paginated")
     void findAll() {
@@ -159,6 +190,20 @@ class SpeakerServiceTest {
         assertThat(result.getName()).isEqualTo("John Updated");
         verify(speakerDao).findById(id);
         verify(speakerDao).update(existingSpeaker);
+        verify(eventPublisher).publishEvent(InfluenceDataChangedEvent.forSpeakers(List.of(id)));
+        verify(eventPublisher).publishEvent(StoredTalksChangedEvent.forAllYears());
+    }
+
+    @Test
+    @DisplayName("Should not report stored talks or influence data as changed when the speaker keeps its name")
+    void update_SameName() {
+        long id = 1L;
+        when(speakerDao.findById(id)).thenReturn(Optional.of(Speaker.builder().id(id).name("John").build()));
+
+        speakerService.update(id, Speaker.builder().id(id).name("John").build());
+
+        verify(eventPublisher, never()).publishEvent(any(StoredTalksChangedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(InfluenceDataChangedEvent.class));
     }
 
     @Test
@@ -187,6 +232,7 @@ class SpeakerServiceTest {
 
         verify(speakerDao).findById(id);
         verify(speakerDao).delete(id);
+        verify(eventPublisher).publishEvent(InfluenceDataChangedEvent.forSpeakers(List.of(id)));
     }
 
     @Test
@@ -1,9 +1,13 @@
 package com.narciso.tedtalks.talks.service;
 
+import com.narciso.tedtalks.common.exception.DuplicateTalkException;
 import com.narciso.tedtalks.common.exception.ResourceNotFoundException;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent.TalkRow;
 import com.narciso.tedtalks.speakers.domain.Speaker;
 import com.narciso.tedtalks.speakers.service.SpeakerService;
 import com.narciso.tedtalks.talks.dao.TalkDao;
+import com.narciso.tedtalks.talks.domain.StoredTalksChangedEvent;
 import com.narciso.tedtalks.talks.domain.Talk;
 import com.narciso.tedtalks.talks.dto.CreateTalkDto;
 import com.narciso.tedtalks.talks.dto.TalkDto;
@@ -14,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -39,6 +44,9 @@ class TalkServiceTest {
     @Mock
     private SpeakerService speakerService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TalkService talkService;
 
@@ -226,6 +234,25 @@ class TalkServiceTest {
         verifyNoInteractions(talkDao);
     }
 
+    @Test
+    @DisplayName("Should reject creating a talk with the title, speaker and date of an existing one")
+    void create_Duplicate() {
+        CreateTalkDto dto = new CreateTalkDto();
+        dto.setTitle("Talk 1");
+        dto.setSpeakerId(sampleSpeaker.getId());
+        dto.setDate("2023-01");
+
+        when(speakerService.findById(sampleSpeaker.getId())).thenReturn(sampleSpeaker);
+        when(talkDao.findByTitleAndSpeakerAndDate("Talk 1", sampleSpeaker.getId(), YearMonth.of(2023, 1)))
+                .thenReturn(Optional.of(Talk.builder().id(1L).build()));
+
+        assertThatThrownBy(() -> talkService.create(dto))
+                .isInstanceOf(DuplicateTalkException.class);
+
+        verify(talkDao, never()).create(any(Talk.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     @DisplayName("Should find talk DTO by ID when exists")
     void findById_WhenExists() {
@@ -276,6 +303,9 @@ class TalkServiceTest {
         talkService.delete(id);
         verify(talkDao).findById(id);
         verify(talkDao).delete(id);
+        verify(eventPublisher).publishEvent(InfluenceDataChangedEvent.forTalks(
+                List.of(new TalkRow(id, sampleSpeaker.getId(), 2023, 1000, 100)), List.of()));
+        verify(eventPublisher).publishEvent(StoredTalksChangedEvent.forYears(List.of(sampleTalkDto1.getDate().getYear()), false));
     }
 
     @Test
@@ -332,6 +362,72 @@ class TalkServiceTest {
         verify(talkDao, times(2)).findById(id);
         verify(speakerService).findById(updateInput.getSpeakerId());
         verify(talkDao).update(any(Talk.class));
+        verify(eventPublisher).publishEvent(StoredTalksChangedEvent.forYears(List.of(2023, 2024), false));
+    }
+
+    @Test
+    @DisplayName("Should reject updating a talk to the title, speaker and date of another one")
+    void update_Duplicate() {
+        Long id = 1L;
+        Talk updateInput = Talk.builder()
+                .title("Talk 2")
+                .date(YearMonth.of(2023, 2))
+                .speakerId(sampleSpeaker.getId())
+                .build();
+
+        when(talkDao.findById(id)).thenReturn(Optional.of(sampleTalkDto1));
+        when(speakerService.findById(sampleSpeaker.getId())).thenReturn(sampleSpeaker);
+        when(talkDao.findByTitleAndSpeakerAndDate("Talk 2", sampleSpeaker.getId(), YearMonth.of(2023, 2)))
+                .thenReturn(Optional.of(Talk.builder().id(2L).build()));
+
+        assertThatThrownBy(() -> talkService.update(id, updateInput))
+                .isInstanceOf(DuplicateTalkException.class);
+
+        verify(talkDao, never()).update(any(Talk.class));
+    }
+
+    @Test
+    @DisplayName("Should update a talk without changing its title, speaker and date")
+    void update_KeepsOwnIdentity() {
+        Long id = 1L;
+        Talk updateInput = Talk.builder()
+                .title("Talk 1")
+                .date(YearMonth.of(2023, 1))
+                .views(5000)
+                .speakerId(sampleSpeaker.getId())
+                .build();
+
+        when(talkDao.findById(id)).thenReturn(Optional.of(sampleTalkDto1));
+        when(speakerService.findById(sampleSpeaker.getId())).thenReturn(sampleSpeaker);
+        when(talkDao.findByTitleAndSpeakerAndDate("Talk 1", sampleSpeaker.getId(), YearMonth.of(2023, 1)))
+                .thenReturn(Optional.of(Talk.builder().id(id).build()));
+
+        talkService.update(id, updateInput);
+
+        verify(talkDao).update(any(Talk.class));
+        verify(eventPublisher).publishEvent(StoredTalksChangedEvent.forYears(List.of(2023), true));
+    }
+
+    @Test
+    @DisplayName("Should update a talk within the same year and report that year once")
+    void update_WithinSameYear() {
+        Long id = 1L;
+        Talk updateInput = Talk.builder()
+                .title("Talk 1")
+                .date(YearMonth.of(2023, 6))
+                .views(5000)
+                .speakerId(sampleSpeaker.getId())
+                .build();
+
+        when(talkDao.findById(id)).thenReturn(Optional.of(sampleTalkDto1));
+        when(speakerService.findById(sampleSpeaker.getId())).thenReturn(sampleSpeaker);
+
+        talkService.update(id, updateInput);
+
+        verify(talkDao).update(any(Talk.class));
+        verify(eventPublisher).publishEvent(InfluenceDataChangedEvent.forTalks(
+                List.of(new TalkRow(id, sampleSpeaker.getId(), 2023, 1000, 100)),
+                List.of(new TalkRow(id, sampleSpeaker.getId(), 2023, 5000, 0))));
     }
 
     @Test
@@ -0,0 +1,151 @@
+package com.narciso.tedtalks.speakers.service;
+
+import com.narciso.tedtalks.config.InfluenceProperties;
+import com.narciso.tedtalks.speakers.dao.SpeakerDao;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent;
+import com.narciso.tedtalks.speakers.domain.InfluenceDataChangedEvent.TalkRow;
+import com.narciso.tedtalks.speakers.strategy.WeightedStrategy;
+import com.narciso.tedtalks.talks.dao.TalkDao;
+import com.narciso.tedtalks.talks.domain.Talk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Influence ranking over an embedded H2 database: the {@code speaker_year_stats} {@code GROUP BY} against
+ * the columnar engine, and the engine's refresh after a talk edit, applied as a row change or by reading
+ * the edited year again. The benchmark sits in the engine's package, which keeps the engine package-private.
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.narciso.tedtalks.speakers.service.ColumnarInfluenceBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarInfluenceBenchmark {
+    private static final int SPEAKERS = 5_000;
+    private static final int TALKS = 200_000;
+    private static final int FIRST_YEAR = 2000;
+    private static final int YEARS = 25;
+
+    // a year, or "all"
+    @Param({"all", "2015"})
+    private String year;
+
+    private EmbeddedDatabase database;
+    private ColumnarInfluenceEngine engine;
+    private InfluenceService sqlService;
+    private InfluenceService columnarService;
+    private Optional<Integer> filter;
+    private TalkRow edited;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("schema.sql")
+                .build();
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(database);
+        Map<String, Long> speakerIds = new SpeakerDao(jdbc).saveAll(
+                IntStream.range(0, SPEAKERS).mapToObj(i -> "Speaker " + i).toList());
+        long[] ids = speakerIds.values().stream().mapToLong(Long::longValue).toArray();
+
+        TalkDao talkDao = new TalkDao(jdbc);
+        SplittableRandom random = new SplittableRandom(42);
+        List<Talk> batch = new ArrayList<>();
+        for (int i = 0; i < TALKS; i++) {
+            int views = random.nextInt(10_000_000);
+            batch.add(Talk.builder()
+                    .title("Talk " + i)
+                    .date(YearMonth.of(FIRST_YEAR + random.nextInt(YEARS), 1 + random.nextInt(12)))
+                    .views(views)
+                    .likes(views / (10 + random.nextInt(40)))
+                    .speakerId(ids[random.nextInt(ids.length)])
+                    .build());
+            if (batch.size() == 5_000 || i == TALKS - 1) {
+                talkDao.createAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        edited = jdbc.query("SELECT id, speaker_id, talk_year, views, likes FROM talks WHERE talk_year = 2015 LIMIT 1",
+                (rs, rowNum) -> new TalkRow(rs.getLong("id"), rs.getLong("speaker_id"), rs.getInt("talk_year"),
+                        rs.getLong("views"), rs.getLong("likes"))).get(0);
+
+        filter = "all".equals(year) ? Optional.empty() : Optional.of(Integer.parseInt(year));
+        engine = new ColumnarInfluenceEngine(jdbc, new InfluenceProperties());
+        sqlService = new InfluenceService(jdbc, new WeightedStrategy(), Optional.empty());
+        columnarService = new InfluenceService(jdbc, new WeightedStrategy(), Optional.of(engine));
+        // the first load is not part of any measurement
+        columnarService.analyzeInfluence(filter);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public Object sql() {
+        return sqlService.analyzeInfluence(filter);
+    }
+
+    @Benchmark
+    public Object columnar() {
+        return columnarService.analyzeInfluence(filter);
+    }
+
+    // the edit only reaches the engine, so every invocation changes the partition the same way
+    @Benchmark
+    public Object columnarAfterTalkEdit() {
+        flip = !flip;
+        TalkRow changed = new TalkRow(edited.talkId(), edited.speakerId(), edited.year(),
+                edited.views() + (flip ? 1 : 0), edited.likes());
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forTalks(List.of(edited), List.of(changed)));
+        return columnarService.analyzeInfluence(filter);
+    }
+
+    @Benchmark
+    public Object columnarAfterYearReload() {
+        engine.onInfluenceDataChanged(InfluenceDataChangedEvent.forYears(List.of(edited.year())));
+        return columnarService.analyzeInfluence(filter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColumnarInfluenceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
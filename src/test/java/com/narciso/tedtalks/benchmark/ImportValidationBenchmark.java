@@ -0,0 +1,118 @@
+package com.narciso.tedtalks.benchmark;
+
+import com.narciso.tedtalks.common.errors.ErrorType;
+import com.narciso.tedtalks.common.errors.ImportError;
+import com.narciso.tedtalks.imports.dto.CsvRecord;
+import com.narciso.tedtalks.imports.service.CsvRecordValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row validation cost: the original regex + parseInt + String.format logic
+ * against {@link CsvRecordValidator}.
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.narciso.tedtalks.benchmark.ImportValidationBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportValidationBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+
+    @Param({"valid", "invalid"})
+    private String rows;
+
+    private final CsvRecordValidator validator = new CsvRecordValidator();
+    private final List<ImportError> errors = new ArrayList<>();
+    private CsvRecord rec;
+
+    @Setup
+    public void setUp() {
+        rec = "valid".equals(rows)
+                ? new CsvRecord("Climate action", "Ozawa Bineshi Albert", "December 2021", "404000", "12000", "https://ted.com")
+                : new CsvRecord("Climate action", "Ozawa Bineshi Albert", "December 2021", "40k", "4031405795013456675", "https://ted.com");
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        errors.clear();
+        bh.consume(legacyValidate(rec, 2));
+        bh.consume(errors.size());
+    }
+
+    @Benchmark
+    public void validator(Blackhole bh) {
+        errors.clear();
+        bh.consume(validator.validate(rec, 2, errors));
+        bh.consume(errors.size());
+    }
+
+    // the ImportService row validation this benchmark was written against
+    private boolean legacyValidate(CsvRecord rec, int line) {
+        boolean ok = legacyParse("views", rec.getViews(), line) >= 0;
+        ok &= legacyParse("likes", rec.getLikes(), line) >= 0;
+        try {
+            YearMonth.parse(rec.getDate(), DATE_FORMATTER);
+        } catch (Exception dpe) {
+            errors.add(new ImportError(line, ErrorType.DATE_PARSE_ERROR, "date", rec.getDate(),
+                    String.format("Cannot parse '%s' as 'MMMM yyyy'.", rec.getDate())));
+            ok = false;
+        }
+        return ok && !rec.getAuthor().trim().isEmpty() && !rec.getTitle().trim().isEmpty();
+    }
+
+    private int legacyParse(String field, String raw, int line) {
+        if (raw == null || raw.trim().isEmpty()) {
+            errors.add(new ImportError(line, ErrorType.MISSING_FIELD, field, raw,
+                    "Field '" + field + "' cannot be empty."));
+            return -1;
+        }
+        if (!raw.matches("^\\d+$")) {
+            errors.add(new ImportError(line, ErrorType.NUMBER_PARSE_ERROR, field, raw,
+                    String.format("Invalid format for '%s': '%s'. Only digits are allowed.", field, raw)));
+            return -1;
+        }
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException nfe) {
+            errors.add(new ImportError(line, ErrorType.NUMBER_PARSE_ERROR, field, raw,
+                    String.format("Value '%s' for '%s' is too large for an integer or cannot be parsed.", raw, field)));
+            return -1;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImportValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
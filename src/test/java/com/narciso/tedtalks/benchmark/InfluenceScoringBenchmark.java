@@ -0,0 +1,100 @@
+package com.narciso.tedtalks.benchmark;
+
+import com.narciso.tedtalks.speakers.strategy.CompositeStrategy;
+import com.narciso.tedtalks.speakers.strategy.InfluenceStrategy;
+import com.narciso.tedtalks.speakers.strategy.WeightedStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-speaker scoring cost: the original {@code BigDecimal} strategies against the primitive
+ * {@link InfluenceStrategy#scoreAll} batch.
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.narciso.tedtalks.benchmark.InfluenceScoringBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(InfluenceScoringBenchmark.SPEAKERS)
+public class InfluenceScoringBenchmark {
+    static final int SPEAKERS = 10_000;
+
+    private static final BigDecimal VIEW_WEIGHT = BigDecimal.valueOf(0.7);
+    private static final BigDecimal LIKE_WEIGHT = BigDecimal.valueOf(0.3);
+
+    @Param({"weighted", "composite"})
+    private String strategyName;
+
+    private InfluenceStrategy strategy;
+    private final long[] views = new long[SPEAKERS];
+    private final long[] likes = new long[SPEAKERS];
+    private final double[] scores = new double[SPEAKERS];
+
+    @Setup
+    public void setUp() {
+        strategy = "weighted".equals(strategyName) ? new WeightedStrategy() : new CompositeStrategy();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SPEAKERS; i++) {
+            views[i] = random.nextLong(100_000_000L);
+            likes[i] = views[i] / (10 + random.nextInt(40));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        boolean weighted = "weighted".equals(strategyName);
+        for (int i = 0; i < SPEAKERS; i++) {
+            bh.consume(weighted ? legacyWeighted(views[i], likes[i]) : legacyComposite(views[i], likes[i]));
+        }
+    }
+
+    @Benchmark
+    public void batch(Blackhole bh) {
+        strategy.scoreAll(views, likes, scores, SPEAKERS);
+        bh.consume(scores);
+    }
+
+    // the WeightedStrategy and CompositeStrategy scores this benchmark was written against
+    private static BigDecimal legacyWeighted(long totalViews, long totalLikes) {
+        return BigDecimal.valueOf(totalViews).multiply(VIEW_WEIGHT)
+                .add(BigDecimal.valueOf(totalLikes).multiply(LIKE_WEIGHT));
+    }
+
+    private static BigDecimal legacyComposite(long totalViews, long totalLikes) {
+        BigDecimal normViews = BigDecimal.valueOf(Math.log1p(totalViews));
+        BigDecimal normLikes = BigDecimal.valueOf(Math.log1p(totalLikes));
+        return normViews.add(normLikes, MathContext.DECIMAL64);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InfluenceScoringBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}